@@ -0,0 +1,78 @@
+package com.brianmccutchon.checkers.model;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the work done for every board the AI looks at
+ * besides finding moves: scoring, hashing and copying.
+ * @author Brian McCutchon
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluationBenchmark {
+
+	@Param({"opening", "middlegame", "endgame"})
+	public String position;
+
+	private byte[][] board;
+
+	private BitBoard bitBoard;
+
+	private Checkers checkers;
+
+	@Setup
+	public void setUp() {
+		board = Positions.get(position);
+		bitBoard = BitBoard.fromArray(board);
+		checkers = new Checkers(new Preferences(1, false, false, "Normal"), null);
+	}
+
+	/**
+	 * Scores a board as the game does: converts it with
+	 * {@link BitBoard#fromArray(byte[][])}, checks that there is a move and
+	 * reads the score that the BitBoard keeps, which takes constant time.
+	 * Nothing is remembered from one call to the next.
+	 */
+	@Benchmark
+	public int evaluateBoard() {
+		return checkers.evaluateBoard(board);
+	}
+
+	/** Scores a position without any table. **/
+	@Benchmark
+	public int evaluateBitBoard() {
+		return bitBoard.evaluate();
+	}
+
+	@Benchmark
+	public long boardHash() {
+		return checkers.boardHash(board);
+	}
+
+	@Benchmark
+	public BitBoard fromArray() {
+		return BitBoard.fromArray(board);
+	}
+
+	@Benchmark
+	public byte[][] cloneBoardStatic() {
+		return Checkers.cloneBoardStatic(board);
+	}
+
+}
@@ -0,0 +1,82 @@
+package com.brianmccutchon.checkers.model;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import framework.DSArrayList;
+
+/**
+ * Measures how long it takes to find the moves from a position.
+ * @author Brian McCutchon
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveGenerationBenchmark {
+
+	@Param({"opening", "middlegame", "endgame"})
+	public String position;
+
+	private byte[][] board;
+
+	private BitBoard bitBoard;
+
+	private long[] moves = new long[BitBoard.MAX_MOVES];
+
+	private Checkers checkers;
+
+	@Setup
+	public void setUp() {
+		board = Positions.get(position);
+		board[0][1] = 1; // getChildren stops at depth 0
+		bitBoard = BitBoard.fromArray(board);
+		checkers = new Checkers(new Preferences(1, false, false, "Normal"), null);
+	}
+
+	/** Finds the moves without creating any objects, as the search does. **/
+	@Benchmark
+	public long generateMoves() {
+		int count = bitBoard.generateMoves(moves);
+		return moves[count - 1];
+	}
+
+	/** Finds the moves and makes a new position for each one. **/
+	@Benchmark
+	public DSArrayList<BitBoard> bitBoardChildren() {
+		return bitBoard.getChildren();
+	}
+
+	/** Finds the boards that follow a board, as the "Tree" engine does. **/
+	@Benchmark
+	public DSArrayList<byte[][]> arrayChildren() {
+		return checkers.getChildren(board);
+	}
+
+	/** Makes and unmakes every move, as the search does. **/
+	@Benchmark
+	public long makeUnmakeMoves() {
+		int count = bitBoard.generateMoves(moves);
+		long sum = 0;
+		for (int i = 0; i < count; i++) {
+			int undo = bitBoard.makeMove(moves[i]);
+			sum += bitBoard.key;
+			bitBoard.unmakeMove(moves[i], undo);
+		}
+		return sum;
+	}
+
+}
@@ -0,0 +1,73 @@
+package com.brianmccutchon.checkers.model;
+
+import static com.brianmccutchon.checkers.model.Checkers.*;
+
+/**
+ * The fixed set of positions that the benchmarks are run on, so that
+ * results from different versions of the engine can be compared.
+ * @author Brian McCutchon
+ */
+final class Positions {
+
+	private static final byte o = UNOCCUPIED_SQUARE;
+	private static final byte b = P1_PAWN;
+	private static final byte B = P1_KING;
+	private static final byte r = P2_PAWN;
+	private static final byte R = P2_KING;
+
+	/** The position at the start of a game. **/
+	static final byte[][] OPENING = {
+		{b, 0, 0, 0},
+		{   r , r , r , r },
+		{ r , r , r , r   },
+		{   r , r , r , r },
+		{ o , o , o , o   },
+		{   o , o , o , o },
+		{ b , b , b , b   },
+		{   b , b , b , b },
+		{ b , b , b , b   },
+	};
+
+	/** A crowded middlegame where every move is a double jump. **/
+	static final byte[][] MIDDLEGAME = {
+		{r, 0, 0, 0},
+		{   r , r , r , r },
+		{ r , r , o , o   },
+		{   o , o , r , r },
+		{ o , r , o , b   },
+		{   o , o , o , o },
+		{ b , b , b , b   },
+		{   b , o , o , o },
+		{ b , o , b , b   },
+	};
+
+	/** An endgame with kings that can wander the whole board. **/
+	static final byte[][] ENDGAME = {
+		{r, 0, 0, 0},
+		{   o , o , o , o },
+		{ o , B , o , o   },
+		{   o , o , o , R },
+		{ o , o , o , o   },
+		{   R , o , B , o },
+		{ o , o , o , o   },
+		{   o , b , o , R },
+		{ o , o , o , o   },
+	};
+
+	private Positions() {}
+
+	/**
+	 * @param name "opening", "middlegame" or "endgame".
+	 * @return A new copy of the position with that name.
+	 * @throws IllegalArgumentException If there is no such position.
+	 */
+	static byte[][] get(String name) {
+		switch (name) {
+			case "opening":    return cloneBoardStatic(OPENING);
+			case "middlegame": return cloneBoardStatic(MIDDLEGAME);
+			case "endgame":    return cloneBoardStatic(ENDGAME);
+			default: throw new IllegalArgumentException("No position " + name);
+		}
+	}
+
+}
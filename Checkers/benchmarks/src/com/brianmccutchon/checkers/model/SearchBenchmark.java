@@ -0,0 +1,69 @@
+package com.brianmccutchon.checkers.model;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import framework.SearchEngine;
+
+/**
+ * Measures how long each engine takes to choose a move. A new engine is
+ * made for every move, so that the tables start out empty instead of
+ * remembering the last search, and the opening book and the tablebase are
+ * left out so that only the search itself is timed.
+ * @author Brian McCutchon
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+	@Param({"opening", "middlegame", "endgame"})
+	public String position;
+
+	@Param({"Alpha-beta", "Off-heap tree", "Lazy SMP", "YBW"})
+	public String engine;
+
+	@Param({"4", "6", "8"})
+	public int depth;
+
+	private byte[][] board;
+
+	private SearchEngine<byte[][]> searchEngine;
+
+	@Setup(Level.Invocation)
+	public void setUp() {
+		board = Positions.get(position);
+		Preferences prefs = new Preferences(depth, false, false,
+				"Normal", engine);
+		prefs.useTablebase = false;
+		searchEngine = Checkers.createSearchEngine(
+				prefs, false, FeatureEvaluator.loadDefault(false));
+	}
+
+	@TearDown(Level.Invocation)
+	public void tearDown() {
+		searchEngine.shutdown();
+	}
+
+	@Benchmark
+	public byte[][] search() {
+		return searchEngine.search(board);
+	}
+
+}
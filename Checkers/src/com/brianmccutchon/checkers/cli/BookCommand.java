@@ -0,0 +1,58 @@
+package com.brianmccutchon.checkers.cli;
+
+import java.io.File;
+import java.io.IOException;
+
+import com.brianmccutchon.checkers.model.BitBoard;
+import com.brianmccutchon.checkers.model.OpeningBook;
+import com.brianmccutchon.checkers.model.OpeningBookBuilder;
+
+/**
+ * <p>
+ * Builds an {@link OpeningBook} from the command line:
+ * </p><pre>
+ * java com.brianmccutchon.checkers.cli.BookCommand plies depth [file]
+ * </pre><p>
+ * Every position in the first <code>plies</code> moves of the game is
+ * searched <code>depth</code> moves ahead. The file defaults to
+ * {@link OpeningBook#DEFAULT_LOCATION}, where the game looks for it.
+ * </p>
+ * @author Brian McCutchon
+ */
+public final class BookCommand {
+
+	private BookCommand() {}
+
+	public static void main(String[] args) throws IOException {
+		int plies, depth;
+		try {
+			plies = Integer.parseInt(args[0]);
+			depth = Integer.parseInt(args[1]);
+		} catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+			plies = depth = 0;
+		}
+
+		if (plies < 1 || depth < 1 || args.length > 3) {
+			System.err.println("Usage: BookCommand plies depth [file]");
+			System.exit(1);
+		}
+
+		File file = new File(args.length > 2 ? args[2]
+				: OpeningBook.DEFAULT_LOCATION);
+
+		long start = System.nanoTime();
+		OpeningBook book = OpeningBookBuilder.build(
+				BitBoard.start(), plies, depth);
+		long millis = (System.nanoTime() - start) / 1_000_000;
+
+		System.out.println("Entries: " + book.size());
+		System.out.println("Time:    " + millis + " ms");
+
+		if (file.getParentFile() != null) {
+			file.getParentFile().mkdirs();
+		}
+		book.save(file);
+		System.out.println("Saved to " + file);
+	}
+
+}
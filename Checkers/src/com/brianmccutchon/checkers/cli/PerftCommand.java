@@ -0,0 +1,81 @@
+package com.brianmccutchon.checkers.cli;
+
+import com.brianmccutchon.checkers.model.BitBoard;
+import com.brianmccutchon.checkers.model.Perft;
+
+/**
+ * <p>
+ * Runs {@link Perft} from the command line:
+ * </p><pre>
+ * java com.brianmccutchon.checkers.cli.PerftCommand depth [position]
+ *     [-threads n] [-divide]
+ * </pre><p>
+ * The position is in the form read by {@link BitBoard#fromString(String)}
+ * and defaults to the starting position. With <code>-divide</code>, the
+ * count after each move is printed as well as the total. The moves from
+ * the position are divided between <code>n</code> threads, which default
+ * to one for each processor.
+ * </p>
+ * @author Brian McCutchon
+ */
+public final class PerftCommand {
+
+	private PerftCommand() {}
+
+	public static void main(String[] args) throws InterruptedException {
+		int depth = -1;
+		String position = null;
+		int threads = Runtime.getRuntime().availableProcessors();
+		boolean divide = false;
+
+		try {
+			for (int i = 0; i < args.length; i++) {
+				if (args[i].equals("-threads")) {
+					threads = Integer.parseInt(args[++i]);
+				} else if (args[i].equals("-divide")) {
+					divide = true;
+				} else if (depth == -1) {
+					depth = Integer.parseInt(args[i]);
+				} else {
+					position = args[i];
+				}
+			}
+		} catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+			depth = -1;
+		}
+
+		if (depth < 1 || threads < 1) {
+			System.err.println("Usage: PerftCommand depth [position] "
+					+ "[-threads n] [-divide]");
+			System.exit(1);
+		}
+
+		BitBoard board;
+		try {
+			board = (position == null)
+					? BitBoard.start() : BitBoard.fromString(position);
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.exit(1);
+			return;
+		}
+
+		long start = System.nanoTime();
+		Perft.Divide result = Perft.divide(board, depth, threads);
+		long nanos = Math.max(System.nanoTime() - start, 1);
+
+		if (divide) {
+			for (int i = 0; i < result.moves.length; i++) {
+				System.out.println(BitBoard.moveToString(result.moves[i])
+						+ ": " + result.counts[i]);
+			}
+			System.out.println();
+		}
+
+		long nodes = result.total();
+		System.out.println("Nodes: " + nodes);
+		System.out.println("Time: " + nanos / 1_000_000 + " ms");
+		System.out.println("Nodes/second: " + nodes * 1_000_000_000L / nanos);
+	}
+
+}
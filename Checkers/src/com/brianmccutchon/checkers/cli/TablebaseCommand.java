@@ -0,0 +1,58 @@
+package com.brianmccutchon.checkers.cli;
+
+import java.io.File;
+import java.io.IOException;
+
+import com.brianmccutchon.checkers.model.Tablebase;
+import com.brianmccutchon.checkers.model.TablebaseGenerator;
+
+/**
+ * <p>
+ * Builds an endgame {@link Tablebase} from the command line:
+ * </p><pre>
+ * java com.brianmccutchon.checkers.cli.TablebaseCommand pieces [file]
+ * </pre><p>
+ * The file defaults to {@link Tablebase#DEFAULT_LOCATION}, where the game
+ * looks for it. Four pieces take a few minutes; five need a few hundred
+ * megabytes of memory.
+ * </p>
+ * @author Brian McCutchon
+ */
+public final class TablebaseCommand {
+
+	private TablebaseCommand() {}
+
+	public static void main(String[] args) throws IOException {
+		int pieces;
+		try {
+			pieces = Integer.parseInt(args[0]);
+		} catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+			pieces = 0;
+		}
+
+		if (pieces < 2 || args.length > 2) {
+			System.err.println("Usage: TablebaseCommand pieces [file]");
+			System.exit(1);
+		}
+
+		File file = new File(args.length > 1 ? args[1]
+				: Tablebase.DEFAULT_LOCATION);
+
+		long start = System.nanoTime();
+		Tablebase tb = TablebaseGenerator.generate(pieces);
+		long millis = (System.nanoTime() - start) / 1_000_000;
+
+		long[] counts = TablebaseGenerator.count(tb);
+		System.out.println("Wins:   " + counts[0]);
+		System.out.println("Losses: " + counts[1]);
+		System.out.println("Draws:  " + counts[2]);
+		System.out.println("Time:   " + millis + " ms");
+
+		if (file.getParentFile() != null) {
+			file.getParentFile().mkdirs();
+		}
+		tb.save(file);
+		System.out.println("Saved to " + file);
+	}
+
+}
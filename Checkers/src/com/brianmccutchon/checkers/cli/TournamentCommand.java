@@ -0,0 +1,158 @@
+package com.brianmccutchon.checkers.cli;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import com.brianmccutchon.checkers.model.BitBoard;
+import com.brianmccutchon.checkers.model.FeatureEvaluator;
+import com.brianmccutchon.checkers.model.Preferences;
+import com.brianmccutchon.checkers.model.Tournament;
+
+import framework.SearchEngine;
+
+/**
+ * <p>
+ * Plays a {@link Tournament} between two engines from the command line:
+ * </p><pre>
+ * java com.brianmccutchon.checkers.cli.TournamentCommand engineA engineB
+ *     [-games n] [-threads n] [-plies n | -openings file] [-suicide]
+ * </pre><p>
+ * Each engine is written <code>name:depth</code> or
+ * <code>name:depth:weights</code>, where the name is one of the
+ * {@link Preferences#engineName engine names} other than
+ * <code>"Tree"</code>, such as <code>Alpha-beta:6</code>, and the weights
+ * file is one saved by {@link FeatureEvaluator#save(File)}. Without one, the
+ * engine uses the weights that the game uses. Each engine searches on one
+ * thread, and <code>n</code> games, 1000 by default, are played on
+ * <code>n</code> threads, which default to one for each processor.
+ * </p><p>
+ * The games start from every position reached after <code>-plies</code>
+ * moves, 3 by default, or from the positions in the openings file, one on
+ * each line in the form read by {@link BitBoard#fromString(String)}. The
+ * score is printed every hundred games and at the end, from the point of
+ * view of the first engine.
+ * </p>
+ * @author Brian McCutchon
+ */
+public final class TournamentCommand {
+
+	private TournamentCommand() {}
+
+	public static void main(String[] args)
+			throws IOException, InterruptedException {
+		List<String> engines = new ArrayList<>();
+		int games = 1000, plies = 3;
+		int threads = Runtime.getRuntime().availableProcessors();
+		String openingsFile = null;
+		boolean isSuicide = false;
+
+		try {
+			for (int i = 0; i < args.length; i++) {
+				if (args[i].equals("-games")) {
+					games = Integer.parseInt(args[++i]);
+				} else if (args[i].equals("-threads")) {
+					threads = Integer.parseInt(args[++i]);
+				} else if (args[i].equals("-plies")) {
+					plies = Integer.parseInt(args[++i]);
+				} else if (args[i].equals("-openings")) {
+					openingsFile = args[++i];
+				} else if (args[i].equals("-suicide")) {
+					isSuicide = true;
+				} else {
+					engines.add(args[i]);
+				}
+			}
+		} catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+			games = -1;
+		}
+
+		if (engines.size() != 2 || games < 1 || threads < 1 || plies < 0) {
+			usage();
+		}
+
+		Supplier<SearchEngine<byte[][]>> a = engine(engines.get(0), isSuicide);
+		Supplier<SearchEngine<byte[][]>> b = engine(engines.get(1), isSuicide);
+
+		List<BitBoard> openings = new ArrayList<>();
+		if (openingsFile == null) {
+			openings = Tournament.openings(BitBoard.start(), plies);
+		} else {
+			for (String line : Files.readAllLines(new File(openingsFile).toPath())) {
+				if (!line.trim().isEmpty()) {
+					openings.add(BitBoard.fromString(line.trim()));
+				}
+			}
+		}
+
+		if (openings.isEmpty()) {
+			System.err.println("No openings to play");
+			System.exit(1);
+		}
+
+		System.out.println(engines.get(0) + " vs. " + engines.get(1) + ", "
+				+ games + " games from " + openings.size() + " openings");
+
+		long start = System.nanoTime();
+		Tournament.Result result = new Tournament(a, b, isSuicide)
+				.play(openings, games, threads, System.out);
+		long millis = (System.nanoTime() - start) / 1_000_000;
+
+		System.out.println("Result: " + result);
+		System.out.printf("Score:  %.1f%%%n", 100 * result.score());
+		System.out.println("Time:   " + millis + " ms");
+	}
+
+	private static void usage() {
+		System.err.println("Usage: TournamentCommand engineA engineB "
+				+ "[-games n] [-threads n]");
+		System.err.println("       [-plies n | -openings file] [-suicide]");
+		System.err.println("Engines are written name:depth[:weights], "
+				+ "e.g. Alpha-beta:6");
+		System.exit(1);
+	}
+
+	/**
+	 * Reads an engine from the command line.
+	 * @param spec The engine, as described in {@link TournamentCommand}.
+	 * @param isSuicide <code>true</code> for suicide checkers.
+	 * @return Something that makes copies of the engine.
+	 * @throws IOException If the weights file cannot be read.
+	 */
+	private static Supplier<SearchEngine<byte[][]>> engine(String spec,
+			boolean isSuicide) throws IOException {
+		String[] parts = spec.split(":");
+		int depth = 0;
+		try {
+			depth = Integer.parseInt(parts[1]);
+		} catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+			usage();
+		}
+
+		if (parts.length > 3 || depth < 1) {
+			usage();
+		}
+
+		Preferences prefs = new Preferences(depth, false, false,
+				isSuicide ? "Suicide" : "Normal", parts[0]);
+		prefs.threads = 1;
+		prefs.ponder = false;
+		prefs.tableMemory = 16;
+
+		FeatureEvaluator evaluator = (parts.length > 2)
+				? FeatureEvaluator.load(new File(parts[2]))
+				: FeatureEvaluator.loadDefault(isSuicide);
+
+		try {
+			return Tournament.engine(prefs, evaluator);
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.exit(1);
+			return null;
+		}
+	}
+
+}
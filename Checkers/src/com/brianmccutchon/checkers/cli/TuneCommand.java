@@ -0,0 +1,101 @@
+package com.brianmccutchon.checkers.cli;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.brianmccutchon.checkers.model.FeatureEvaluator;
+import com.brianmccutchon.checkers.model.GameRecords;
+import com.brianmccutchon.checkers.model.SelfPlay;
+import com.brianmccutchon.checkers.model.TexelTuner;
+
+/**
+ * <p>
+ * Records games and tunes evaluation weights from the command line:
+ * </p><pre>
+ * java com.brianmccutchon.checkers.cli.TuneCommand play games depth records
+ * java com.brianmccutchon.checkers.cli.TuneCommand tune records [weights]
+ * </pre><p>
+ * The first plays <code>games</code> games with {@link SelfPlay}, looking
+ * <code>depth</code> moves ahead, and saves their positions. The second
+ * tunes weights to the positions with a {@link TexelTuner}, starting from
+ * the weights in the weights file if there is one, and saves them there.
+ * The weights file defaults to {@link FeatureEvaluator#NORMAL_LOCATION},
+ * where the game looks for it.
+ * </p>
+ * @author Brian McCutchon
+ */
+public final class TuneCommand {
+
+	private TuneCommand() {}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length == 4 && args[0].equals("play")) {
+			play(args);
+		} else if ((args.length == 2 || args.length == 3)
+				&& args[0].equals("tune")) {
+			tune(args);
+		} else {
+			usage();
+		}
+	}
+
+	private static void usage() {
+		System.err.println("Usage: TuneCommand play games depth records");
+		System.err.println("       TuneCommand tune records [weights]");
+		System.exit(1);
+	}
+
+	private static void play(String[] args) throws IOException {
+		int games, depth;
+		try {
+			games = Integer.parseInt(args[1]);
+			depth = Integer.parseInt(args[2]);
+		} catch (NumberFormatException e) {
+			games = depth = 0;
+		}
+
+		if (games < 1 || depth < 1) {
+			usage();
+		}
+
+		long start = System.nanoTime();
+		GameRecords records = SelfPlay.play(games, depth);
+		long millis = (System.nanoTime() - start) / 1_000_000;
+
+		System.out.println("Positions: " + records.size());
+		System.out.println("Time:      " + millis + " ms");
+
+		File file = new File(args[3]);
+		if (file.getParentFile() != null) {
+			file.getParentFile().mkdirs();
+		}
+		records.save(file);
+		System.out.println("Saved to " + file);
+	}
+
+	private static void tune(String[] args) throws IOException {
+		File weightsFile = new File(args.length > 2 ? args[2]
+				: FeatureEvaluator.NORMAL_LOCATION);
+		int[] weights = weightsFile.exists()
+				? FeatureEvaluator.load(weightsFile).getWeights()
+				: FeatureEvaluator.defaultWeights();
+
+		long start = System.nanoTime();
+		TexelTuner tuner = new TexelTuner(GameRecords.load(new File(args[1])));
+		System.out.println("Positions: " + tuner.size());
+
+		tuner.tune(weights, System.out);
+		long millis = (System.nanoTime() - start) / 1_000_000;
+
+		System.out.println("Weights:   " + Arrays.toString(weights));
+		System.out.println("Time:      " + millis + " ms");
+
+		if (weightsFile.getParentFile() != null) {
+			weightsFile.getParentFile().mkdirs();
+		}
+		new FeatureEvaluator(weights).save(weightsFile);
+		System.out.println("Saved to " + weightsFile);
+	}
+
+}
@@ -0,0 +1,490 @@
+package com.brianmccutchon.checkers.model;
+
+import static com.brianmccutchon.checkers.model.Checkers.*;
+import static framework.TranspositionTable.*;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import framework.DSArrayList;
+import framework.Evaluator;
+import framework.SearchEngine;
+import framework.TranspositionTable;
+
+/**
+ * <p>
+ * Chooses the computer's move with a depth-first negamax search
+ * with alpha-beta pruning. Boards are scored as soon as they are
+ * generated, so no game tree is ever built, and branches that
+ * cannot change the result are skipped. The search moves through
+ * the tree by making and unmaking moves on a single position.
+ * </p><p>
+ * Scores are from the point of view of the player whose turn it is.
+ * A loss is {@link Checkers#LOSS} plus the number of moves until the
+ * loss, so that the computer puts off losing for as long as possible
+ * and wins as quickly as possible.
+ * </p><p>
+ * The search is iterative: it searches one move ahead, then two, and so on.
+ * Each iteration searches the best move of the last one first, and the
+ * table fills up with good moves for the next iteration to try first, so
+ * the early iterations cost little. If a {@link #setTimeLimit(long) time
+ * limit} is set, the search keeps going deeper until time runs out and
+ * then plays the best move of the last iteration that it finished.
+ * </p><p>
+ * Results are remembered in a {@link TranspositionTable}, keyed by
+ * {@link BitBoard#key}. The best move stored for a board is its index
+ * in the moves found by {@link BitBoard#generateMoves(long[])}, and it
+ * is searched first the next time the board is reached. The other moves
+ * are put in order by a {@link MoveOrderer}.
+ * </p><p>
+ * Positions at the bottom of the search are scored by a
+ * {@link Quiescence} search, which plays out any jumps first.
+ * </p>
+ * @author Brian McCutchon
+ */
+public class AlphaBetaSearch implements SearchEngine<byte[][]> {
+
+	/** A score greater than any real score. **/
+	static final int INFINITY = Short.MAX_VALUE;
+
+	/** The number of entries in a table made by this class. **/
+	private static final int DEFAULT_TABLE_SIZE = 1 << 20;
+
+	/** The deepest that a search with a time limit will go. **/
+	static final int MAX_DEPTH = 64;
+
+	/** How many boards to examine between checks of the clock. **/
+	private static final int CLOCK_CHECK_INTERVAL = 1024;
+
+	/** The most moves from the root that a search can look ahead. **/
+	static final int MAX_PLY = 128;
+
+	/**
+	 * Scores further than this from zero are wins or losses,
+	 * whose distance from the root must be adjusted when they
+	 * are stored in the table. It leaves room for the longest
+	 * win in the {@link Tablebase}, found at the deepest ply
+	 * of a search and its {@link Quiescence} search.
+	 */
+	static final int MIN_WIN = WIN - MAX_PLY - Quiescence.MAX_PLY
+			- TablebaseGenerator.MAX_DISTANCE;
+
+	/** The number of moves to look ahead. **/
+	private final int depth;
+
+	/** <code>true</code> if the object of the game is to lose. **/
+	private final boolean isSuicideCheckers;
+
+	/** Remembers the results of searches. **/
+	private final TranspositionTable table;
+
+	/** The number of boards examined by the last search. **/
+	private long nodeCount;
+
+	/**
+	 * The number of milliseconds to spend on each move,
+	 * or <code>0</code> to search to {@link #depth}.
+	 */
+	private long timeLimit;
+
+	/**
+	 * Decides the order in which to search moves, or <code>null</code>
+	 * to search the move from the table first and then the rest in the
+	 * order in which they were generated.
+	 */
+	private MoveOrderer orderer = new MoveOrderer(MAX_PLY);
+
+	/** Scores the positions at the bottom of the search. **/
+	private final Quiescence quiescence;
+
+	/** Endgame positions to look up, or <code>null</code>. **/
+	private Tablebase tablebase;
+
+	/** The value of {@link System#nanoTime()} at which to stop searching. **/
+	private long deadline;
+
+	/**
+	 * <code>true</code> if the current iteration ran out of
+	 * time or was stopped by {@link #stopSignal}.
+	 */
+	private boolean aborted;
+
+	/** Set by another thread to end the current search early. **/
+	private AtomicBoolean stopSignal;
+
+	/** The depth of the last iteration that finished. **/
+	private int completedDepth;
+
+	/**
+	 * <code>false</code> if another object shares the table and
+	 * calls {@link #prepareTable(TranspositionTable, BitBoard)}.
+	 */
+	boolean preparesTable = true;
+
+	/**
+	 * The moves found at each ply of the current line, so that
+	 * the search does not create any lists as it goes.
+	 */
+	private final long[][] moveBuffers = new long[MAX_PLY][BitBoard.MAX_MOVES];
+
+	/**
+	 * @param depth The number of moves to look ahead.
+	 * @param isSuicideCheckers <code>true</code> if the object
+	 * of the game is to lose.
+	 */
+	public AlphaBetaSearch(int depth, boolean isSuicideCheckers) {
+		this(depth, isSuicideCheckers,
+				new TranspositionTable(DEFAULT_TABLE_SIZE));
+	}
+
+	/**
+	 * @param depth The number of moves to look ahead.
+	 * @param isSuicideCheckers <code>true</code> if the object
+	 * of the game is to lose.
+	 * @param table The table in which to remember results.
+	 */
+	public AlphaBetaSearch(int depth, boolean isSuicideCheckers,
+			TranspositionTable table) {
+		this.depth = depth;
+		this.isSuicideCheckers = isSuicideCheckers;
+		this.table = table;
+		quiescence = new Quiescence(isSuicideCheckers);
+	}
+
+	@Override
+	public byte[][] search(byte[][] board) {
+		return bestChild(BitBoard.fromArray(board)).toArray();
+	}
+
+	@Override
+	public byte[][] search(byte[][] board, AtomicBoolean stopSignal) {
+		return bestChild(BitBoard.fromArray(board), stopSignal).toArray();
+	}
+
+	/**
+	 * Chooses a move for the player whose turn it is. If several moves
+	 * are equally good, one of them is chosen at random.
+	 * @param root The current position.
+	 * @return The position after the chosen move.
+	 * @throws IllegalStateException If there are no legal moves.
+	 */
+	public BitBoard bestChild(BitBoard root) {
+		return bestChild(root, new AtomicBoolean());
+	}
+
+	/**
+	 * Like {@link #bestChild(BitBoard)}, but can be stopped early by another
+	 * thread. If it is stopped before it has finished looking one move
+	 * ahead, the move returned is arbitrary.
+	 * @param root The current position.
+	 * @param stopSignal Set by another thread to stop the search.
+	 * @return The position after the chosen move.
+	 * @throws IllegalStateException If there are no legal moves.
+	 */
+	public BitBoard bestChild(BitBoard root, AtomicBoolean stopSignal) {
+		nodeCount = 1;
+		quiescence.nodeCount = 0;
+		completedDepth = 0;
+		aborted = false;
+		this.stopSignal = stopSignal;
+
+		DSArrayList<BitBoard> children = root.getChildren();
+
+		if (children.size() == 0) {
+			throw new IllegalStateException("No legal moves");
+		}
+
+		// If there's only one move, take it.
+		if (children.size() == 1) {
+			return children.get(0);
+		}
+
+		children.shuffle();
+		BitBoard[] moves = children.stream().toArray(BitBoard[]::new);
+
+		if (preparesTable) {
+			prepareTable(table, root);
+		}
+		if (orderer != null) {
+			orderer.newSearch();
+		}
+
+		long start = System.nanoTime();
+		deadline = start + timeLimit * 1_000_000;
+		int maxDepth = (timeLimit > 0) ? MAX_DEPTH : depth;
+
+		for (int d = 1; d <= maxDepth; d++) {
+			int alpha = -INFINITY;
+			int bestIndex = 0;
+
+			for (int i = 0; i < moves.length && !aborted; i++) {
+				int val = -negamax(moves[i], d - 1, 1, -INFINITY, -alpha);
+				if (val > alpha && !aborted) {
+					alpha = val;
+					bestIndex = i;
+				}
+			}
+
+			if (aborted) {
+				break; // Use the result of the last iteration.
+			}
+
+			// Move the best move to the front for the next iteration.
+			BitBoard best = moves[bestIndex];
+			System.arraycopy(moves, 0, moves, 1, bestIndex);
+			moves[0] = best;
+			completedDepth = d;
+
+			if (alpha >= MIN_WIN || alpha <= -MIN_WIN) {
+				break; // A deeper search would find the same result.
+			}
+
+			if (timeLimit > 0 && System.nanoTime() - start > timeLimit * 500_000) {
+				break; // The next iteration would probably not finish.
+			}
+		}
+
+		return moves[0];
+	}
+
+	/**
+	 * Scores a position by searching it to a fixed depth.
+	 * @param b The position.
+	 * @param depth The number of moves to look ahead.
+	 * @return The score of the position for the player whose turn it is.
+	 */
+	int score(BitBoard b, int depth) {
+		nodeCount = 0;
+		quiescence.nodeCount = 0;
+		completedDepth = 0;
+		aborted = false;
+		stopSignal = new AtomicBoolean();
+		if (orderer != null) {
+			orderer.newSearch();
+		}
+		return negamax(b.copy(), depth, 0, -INFINITY, INFINITY);
+	}
+
+	/**
+	 * The recursive part of the search.
+	 * @param b The position to score. Moves are made on it and undone,
+	 * so it is the same when this method returns.
+	 * @param depth The number of moves left to look ahead.
+	 * @param ply The number of moves made since the root.
+	 * @param alpha The score that the player to move is already assured of.
+	 * @param beta The score that the opponent is already assured of,
+	 * negated. Any score this high will not be chosen by the opponent.
+	 * @return The score of the position, or a bound on it if it is
+	 * outside the window from <code>alpha</code> to <code>beta</code>.
+	 */
+	private int negamax(BitBoard b, int depth, int ply, int alpha, int beta) {
+		// The first iteration is always allowed to finish in time.
+		if (++nodeCount % CLOCK_CHECK_INTERVAL == 0 && (stopSignal.get()
+				|| completedDepth > 0 && timeLimit > 0
+				&& System.nanoTime() - deadline > 0)) {
+			aborted = true;
+		}
+
+		if (aborted) {
+			return 0;
+		}
+
+		// Look endgames up instead of searching them.
+		if (tablebase != null && ply > 0
+				&& Integer.bitCount(b.p1 | b.p2) <= tablebase.getMaxPieces()) {
+			int value = tablebase.probe(b);
+			if (value != Tablebase.NOT_FOUND) {
+				return Tablebase.score(value, ply);
+			}
+		}
+
+		if (depth <= 0) {
+			return quiescence.score(b, ply, alpha, beta);
+		}
+
+		// See whether we already know enough about this board.
+		long entry = table.probe(b.key);
+		int tableMove = NO_MOVE;
+
+		if (entry != 0) {
+			tableMove = move(entry);
+
+			if (depth(entry) >= depth) {
+				int score = fromTable(TranspositionTable.score(entry), ply);
+				int bound = bound(entry);
+
+				if (bound == EXACT
+						|| (bound == LOWER_BOUND && score >= beta)
+						|| (bound == UPPER_BOUND && score <= alpha)) {
+					return score;
+				}
+			}
+		}
+
+		long[] moves = moveBuffers[ply];
+		int count = b.generateMoves(moves);
+
+		if (count == 0) {
+			return lost(ply);
+		}
+
+		if (tableMove >= count) {
+			tableMove = NO_MOVE; // a different board with the same hash
+		}
+
+		int originalAlpha = alpha;
+		int best = -INFINITY;
+		int bestMove = NO_MOVE;
+
+		int[] order = (orderer != null)
+				? orderer.order(b, moves, count, tableMove, ply) : null;
+
+		// Without an orderer, search the move from the
+		// table first, then the rest in order.
+		for (int i = (order != null) ? 0 : -1; i < count; i++) {
+			int m = (order != null) ? order[i] : (i == -1) ? tableMove : i;
+			if (m == NO_MOVE || (order == null && i != -1 && m == tableMove)) {
+				continue;
+			}
+
+			int undo = b.makeMove(moves[m]);
+			int val = -negamax(b, depth - 1, ply + 1, -beta, -alpha);
+			b.unmakeMove(moves[m], undo);
+
+			if (aborted) {
+				return 0; // The result is not reliable, so don't store it.
+			}
+
+			if (val > best) {
+				best = val;
+				bestMove = m;
+				if (val > alpha) {
+					alpha = val;
+					if (alpha >= beta) {
+						if (orderer != null) {
+							orderer.cutoff(b, moves[m], depth, ply);
+						}
+						break; // The opponent will never allow this.
+					}
+				}
+			}
+		}
+
+		int bound = (best <= originalAlpha) ? UPPER_BOUND
+				: (best >= beta) ? LOWER_BOUND : EXACT;
+		table.store(b.key, depth, bound, toTable(best, ply), bestMove,
+				Integer.bitCount(b.p1 | b.p2));
+
+		return best;
+	}
+
+	/**
+	 * Gets a table ready for a search from a new position. What it holds
+	 * from earlier searches is kept, since the new position was usually in
+	 * the tree searched last time, but it is marked as old so that it is
+	 * replaced first, and boards with more pieces than the new position
+	 * are forgotten, since they can no longer be reached.
+	 * @param table The table.
+	 * @param root The position about to be searched.
+	 */
+	static void prepareTable(TranspositionTable table, BitBoard root) {
+		table.newSearch();
+		table.evict(Integer.bitCount(root.p1 | root.p2));
+	}
+
+	/**
+	 * @param ply The number of moves made since the root.
+	 * @return The score of a position where the player
+	 * whose turn it is cannot move.
+	 */
+	private int lost(int ply) {
+		return isSuicideCheckers ? WIN - ply : LOSS + ply;
+	}
+
+	/**
+	 * Converts a score so that wins and losses count moves from the board
+	 * being stored rather than from the root, since the same board may be
+	 * reached at a different distance from the root next time.
+	 * @param score A score.
+	 * @param ply The number of moves made since the root.
+	 * @return The score to store.
+	 */
+	static int toTable(int score, int ply) {
+		if (score >= MIN_WIN) {
+			return score + ply;
+		} else if (score <= -MIN_WIN) {
+			return score - ply;
+		} else {
+			return score;
+		}
+	}
+
+	/**
+	 * Undoes {@link #toTable(int, int)}.
+	 * @param score A stored score.
+	 * @param ply The number of moves made since the root.
+	 * @return The score relative to the root.
+	 */
+	static int fromTable(int score, int ply) {
+		if (score >= MIN_WIN) {
+			return score - ply;
+		} else if (score <= -MIN_WIN) {
+			return score + ply;
+		} else {
+			return score;
+		}
+	}
+
+	/**
+	 * @return The number of boards examined by the last search.
+	 */
+	public long getNodeCount() {
+		return nodeCount + quiescence.nodeCount;
+	}
+
+	/**
+	 * @return The number of moves that the last search
+	 * looked ahead in its last finished iteration.
+	 */
+	public int getCompletedDepth() {
+		return completedDepth;
+	}
+
+	/**
+	 * Sets the endgame database to look positions up in. It is
+	 * not used in suicide checkers, where the rules are different.
+	 * @param tablebase The database, or <code>null</code> for none.
+	 */
+	public void setTablebase(Tablebase tablebase) {
+		this.tablebase = isSuicideCheckers ? null : tablebase;
+	}
+
+	/**
+	 * Sets how to score the positions at the bottom of the search.
+	 * @param evaluator The evaluation. By default,
+	 * {@link FeatureEvaluator#DEFAULT}.
+	 */
+	public void setEvaluator(Evaluator<BitBoard> evaluator) {
+		quiescence.evaluator = evaluator;
+	}
+
+	/**
+	 * Sets how to order the moves from each position.
+	 * @param orderer The orderer, or <code>null</code> to search the move
+	 * from the table first and the rest in the order they were generated.
+	 */
+	public void setMoveOrderer(MoveOrderer orderer) {
+		this.orderer = orderer;
+	}
+
+	/**
+	 * Sets how long to think about each move.
+	 * @param timeLimit The number of milliseconds to spend on each move. The
+	 * search stops going deeper once this time is up, regardless of the depth
+	 * given to the constructor. <code>0</code> means to always search to that
+	 * depth instead.
+	 */
+	public void setTimeLimit(long timeLimit) {
+		this.timeLimit = timeLimit;
+	}
+
+}
@@ -0,0 +1,269 @@
+package com.brianmccutchon.checkers.model;
+
+import static com.brianmccutchon.checkers.model.Checkers.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import framework.Evaluator;
+import framework.NodeArena;
+import framework.SearchEngine;
+
+/**
+ * <p>
+ * Chooses the computer's move by building the whole game tree to a fixed
+ * depth, as {@link framework.Game#computerMove(int)} does, but in a
+ * {@link NodeArena} outside the Java heap instead of out of
+ * {@link framework.DSNode}s. The tree is thrown away and the memory used
+ * again for each move.
+ * </p><p>
+ * Each node holds its position, the index of its first child and the
+ * number of children, and its score, which is filled in as the tree is
+ * built, so the finished tree can be examined after the search. Scores
+ * are the same as those of an {@link AlphaBetaSearch} to the same depth:
+ * the leaves are scored by a {@link Quiescence} search, whose jumps are
+ * not kept in the tree.
+ * If the arena fills up, the nodes that do not fit are scored as if they
+ * were at the bottom of the tree.
+ * </p><p>
+ * The search can be stopped by another thread, as when
+ * {@link Ponderer pondering}; the nodes that have not been built by
+ * then are left unexpanded and scored as draws.
+ * </p>
+ * @author Brian McCutchon
+ */
+public class ArenaTreeSearch implements SearchEngine<byte[][]> {
+
+	/** Where each field is in a node. **/
+	static final int KEY = 0, P1 = 8, P2 = 12, KINGS = 16, TURN = 20,
+			CHILD_COUNT = 22, FIRST_CHILD = 24, SCORE = 28;
+
+	/** The number of bytes in each node. **/
+	static final int NODE_SIZE = 32;
+
+	/** The number of children of a node that was not expanded. **/
+	static final short NOT_EXPANDED = -1;
+
+	/** How many nodes are built between checks of the stop signal. **/
+	private static final int STOP_CHECK_INTERVAL = 1024;
+
+	/** The number of moves to look ahead. **/
+	private final int depth;
+
+	/** <code>true</code> if the object of the game is to lose. **/
+	private final boolean isSuicideCheckers;
+
+	/** Holds the tree. **/
+	private final NodeArena arena;
+
+	/** The moves found at each ply of the current line. **/
+	private final long[][] moveBuffers;
+
+	/** Scores the leaves. **/
+	private final Quiescence quiescence;
+
+	/** Set by another thread to end the current search early. **/
+	private AtomicBoolean stopSignal = new AtomicBoolean();
+
+	/** <code>true</code> once the current search has seen the signal. **/
+	private boolean stopped;
+
+	/** The number of nodes built by the current search. **/
+	private long nodes;
+
+	/**
+	 * @param depth The number of moves to look ahead.
+	 * @param isSuicideCheckers <code>true</code> if the object
+	 * of the game is to lose.
+	 * @param maxNodes The most nodes in a tree.
+	 */
+	public ArenaTreeSearch(int depth, boolean isSuicideCheckers, int maxNodes) {
+		this.depth = depth;
+		this.isSuicideCheckers = isSuicideCheckers;
+		arena = new NodeArena(NODE_SIZE, maxNodes);
+		moveBuffers = new long[depth + 1][BitBoard.MAX_MOVES];
+		quiescence = new Quiescence(isSuicideCheckers);
+	}
+
+	@Override
+	public byte[][] search(byte[][] board) {
+		return bestChild(BitBoard.fromArray(board)).toArray();
+	}
+
+	@Override
+	public byte[][] search(byte[][] board, AtomicBoolean stopSignal) {
+		return bestChild(BitBoard.fromArray(board), stopSignal).toArray();
+	}
+
+	/**
+	 * Chooses a move for the player whose turn it is. If several moves
+	 * are equally good, one of them is chosen at random.
+	 * @param root The current position.
+	 * @return The position after the chosen move.
+	 * @throws IllegalStateException If there are no legal moves.
+	 */
+	public BitBoard bestChild(BitBoard root) {
+		return bestChild(root, new AtomicBoolean());
+	}
+
+	/**
+	 * Like {@link #bestChild(BitBoard)}, but can be stopped early by another
+	 * thread. If it is stopped, the move returned may be a poor one.
+	 * @param root The current position.
+	 * @param stopSignal Set by another thread to stop the search.
+	 * @return The position after the chosen move.
+	 * @throws IllegalStateException If there are no legal moves.
+	 */
+	public BitBoard bestChild(BitBoard root, AtomicBoolean stopSignal) {
+		this.stopSignal = stopSignal;
+		int node = buildTree(root);
+		this.stopSignal = new AtomicBoolean();
+		int count = arena.getShort(node, CHILD_COUNT);
+
+		if (count <= 0) {
+			throw new IllegalStateException("No legal moves");
+		}
+
+		// Choose at random among the children with the best score.
+		int first = arena.getInt(node, FIRST_CHILD);
+		int best = arena.getInt(node, SCORE);
+		int chosen = -1, ties = 0;
+
+		for (int c = first; c < first + count; c++) {
+			if (-arena.getInt(c, SCORE) == best
+					&& ThreadLocalRandom.current().nextInt(++ties) == 0) {
+				chosen = c;
+			}
+		}
+
+		return new BitBoard(arena.getInt(chosen, P1), arena.getInt(chosen, P2),
+				arena.getInt(chosen, KINGS), arena.getByte(chosen, TURN));
+	}
+
+	/**
+	 * Scores a position by building its tree.
+	 * @param b The position.
+	 * @return The score of the position for the player whose turn it is.
+	 */
+	int score(BitBoard b) {
+		return arena.getInt(buildTree(b), SCORE);
+	}
+
+	/**
+	 * Forgets the last tree and builds a new one.
+	 * @param root The position at the root.
+	 * @return The index of the root node.
+	 * @throws IllegalStateException If there is no room for the root.
+	 */
+	int buildTree(BitBoard root) {
+		arena.reset();
+		stopped = false;
+		nodes = 0;
+		int node = arena.allocate(1);
+		if (node < 0) {
+			throw new IllegalStateException("The arena is too small");
+		}
+
+		BitBoard b = root.copy();
+		writePosition(node, b);
+		build(node, b, depth, 0);
+		return node;
+	}
+
+	/**
+	 * Builds the tree below a node and scores it.
+	 * @param node The node, whose position has already been written.
+	 * @param b The node's position. Moves are made on it and undone,
+	 * so it is the same when this method returns.
+	 * @param depth The number of moves left to look ahead.
+	 * @param ply The number of moves made since the root.
+	 * @return The score of the node, which is also stored in it.
+	 */
+	private int build(int node, BitBoard b, int depth, int ply) {
+		if (++nodes % STOP_CHECK_INTERVAL == 0 && stopSignal.get()) {
+			stopped = true;
+		}
+
+		if (stopped) {
+			arena.putShort(node, CHILD_COUNT, NOT_EXPANDED);
+			arena.putInt(node, SCORE, 0);
+			return 0;
+		}
+
+		long[] moves = moveBuffers[ply];
+		int count = (depth > 0) ? b.generateMoves(moves) : 0;
+		int first = (count > 0) ? arena.allocate(count) : -1;
+		int score;
+
+		if (depth > 0 && count == 0) {
+			arena.putShort(node, CHILD_COUNT, (short) 0);
+			score = lost(ply);
+		} else if (first < 0) {
+			// A leaf, either at the bottom of the tree or for lack of room.
+			arena.putShort(node, CHILD_COUNT, NOT_EXPANDED);
+			score = quiescence.score(b, ply,
+					-AlphaBetaSearch.INFINITY, AlphaBetaSearch.INFINITY);
+		} else {
+			arena.putShort(node, CHILD_COUNT, (short) count);
+			arena.putInt(node, FIRST_CHILD, first);
+			score = -AlphaBetaSearch.INFINITY;
+
+			for (int i = 0; i < count; i++) {
+				int undo = b.makeMove(moves[i]);
+				writePosition(first + i, b);
+				score = Math.max(score, -build(first + i, b, depth - 1, ply + 1));
+				b.unmakeMove(moves[i], undo);
+			}
+		}
+
+		arena.putInt(node, SCORE, score);
+		return score;
+	}
+
+	/**
+	 * Stores a position in a node.
+	 * @param node The index of the node.
+	 * @param b The position.
+	 */
+	private void writePosition(int node, BitBoard b) {
+		arena.putLong(node, KEY, b.key);
+		arena.putInt(node, P1, b.p1);
+		arena.putInt(node, P2, b.p2);
+		arena.putInt(node, KINGS, b.kings);
+		arena.putByte(node, TURN, b.turn);
+	}
+
+	/**
+	 * @param ply The number of moves made since the root.
+	 * @return The score of a position where the player
+	 * whose turn it is cannot move.
+	 */
+	private int lost(int ply) {
+		return isSuicideCheckers ? WIN - ply : LOSS + ply;
+	}
+
+	/**
+	 * Sets how to score the leaves.
+	 * @param evaluator The evaluation. By default,
+	 * {@link FeatureEvaluator#DEFAULT}.
+	 */
+	public void setEvaluator(Evaluator<BitBoard> evaluator) {
+		quiescence.evaluator = evaluator;
+	}
+
+	/**
+	 * @return The number of nodes in the last tree built.
+	 */
+	public int getNodeCount() {
+		return arena.size();
+	}
+
+	/**
+	 * @return The arena that holds the last tree built,
+	 * for examining it after a search.
+	 */
+	public NodeArena getArena() {
+		return arena;
+	}
+
+}
@@ -0,0 +1,728 @@
+package com.brianmccutchon.checkers.model;
+
+import static com.brianmccutchon.checkers.model.Checkers.*;
+
+import framework.DSArrayList;
+
+/**
+ * <p>
+ * A compact representation of a checkers position that uses one bit per
+ * dark square. It is used by the AI, while the <code>byte[][]</code> form
+ * described in {@link Checkers} is still used everywhere else.
+ * </p><p>
+ * The 32 dark squares are numbered 0 to 31, starting from the top-left of the
+ * board and reading left to right, so square <code>s</code> is stored in
+ * <code>board[s/4 + 1][s%4]</code> of the array form. Moving a set of pieces
+ * one square diagonally is then a shift by 3, 4 or 5 bits, with masks to
+ * keep pieces from wrapping around the edges of the board.
+ * </p>
+ * @author Brian McCutchon
+ */
+public class BitBoard {
+
+	/** The squares in rows 0, 2, 4 and 6. **/
+	static final int EVEN_ROWS  = 0x0F0F0F0F;
+
+	/** The squares in rows 1, 3, 5 and 7. **/
+	static final int ODD_ROWS   = 0xF0F0F0F0;
+
+	/** The leftmost dark square of each row. **/
+	static final int LEFT_EDGE  = 0x11111111;
+
+	/** The rightmost dark square of each row. **/
+	static final int RIGHT_EDGE = 0x88888888;
+
+	/** The top row, where player 1's pawns are crowned. **/
+	static final int TOP_ROW    = 0x0000000F;
+
+	/** The bottom row, where player 2's pawns are crowned. **/
+	static final int BOTTOM_ROW = 0xF0000000;
+
+	/**
+	 * The squares along the edge of the board, except for the two in each
+	 * double corner. Kings here are less valuable.
+	 * @see Checkers#evaluateBoard(byte[][])
+	 */
+	static final int EDGES      = 0x7018180E;
+
+	/**
+	 * The squares one away from an edge that are not in {@link #EDGES}.
+	 * Kings here are slightly less valuable.
+	 */
+	static final int NEAR_EDGES = 0x8F8181F1;
+
+	/**
+	 * The value of each piece on each square, from player 1's point of view,
+	 * indexed by piece in the same order as {@link Zobrist#PIECES} and then
+	 * by square. Kings are worth less along the edges, where they are easier
+	 * to trap, and player 2's pieces have negative values.
+	 * @see #evaluate()
+	 */
+	static final int[][] PIECE_SQUARE = new int[4][32];
+
+	static {
+		for (int s = 0; s < 32; s++) {
+			int king = KING_VALUE - 2 * ((EDGES >>> s) & 1)
+					- ((NEAR_EDGES >>> s) & 1);
+			PIECE_SQUARE[0][s] = PAWN_VALUE;
+			PIECE_SQUARE[1][s] = king;
+			PIECE_SQUARE[2][s] = -PAWN_VALUE;
+			PIECE_SQUARE[3][s] = -king;
+		}
+	}
+
+	/** Direction constants for {@link #shift(int, int)}. **/
+	static final int UP_LEFT = 0, UP_RIGHT = 1, DOWN_LEFT = 2, DOWN_RIGHT = 3;
+
+	/**
+	 * The size of the buffer to pass to {@link #generateMoves(long[])}.
+	 * No position has nearly this many moves.
+	 */
+	public static final int MAX_MOVES = 128;
+
+	/** Player 1's pieces. **/
+	public int p1;
+
+	/** Player 2's pieces. **/
+	public int p2;
+
+	/** The kings of both players. **/
+	public int kings;
+
+	/**
+	 * {@link Checkers#P1_PAWN P1_PAWN} if it is player 1's turn and
+	 * {@link Checkers#P2_PAWN P2_PAWN} if it is player 2's turn, as in
+	 * <code>board[0][0]</code>.
+	 */
+	public byte turn;
+
+	/**
+	 * The {@link Zobrist} hash of this position.
+	 */
+	public long key;
+
+	/**
+	 * The sum of the {@link #PIECE_SQUARE} values of the pieces, which is
+	 * the score of this position for player 1. Like {@link #key}, it is
+	 * kept up to date by {@link #makeMove(long)} and
+	 * {@link #unmakeMove(long, int)}, so scoring a position takes no time.
+	 */
+	public int eval;
+
+	/**
+	 * Creates a position from its bitboards.
+	 * @param p1 Player 1's pieces.
+	 * @param p2 Player 2's pieces.
+	 * @param kings The kings of both players.
+	 * @param turn The player whose turn it is.
+	 */
+	public BitBoard(int p1, int p2, int kings, byte turn) {
+		this(p1, p2, kings, turn, 0, 0);
+		key = Zobrist.hash(this);
+		eval = evaluate(p1, p2, kings);
+	}
+
+	/**
+	 * Creates a position whose hash and score are already known.
+	 */
+	private BitBoard(int p1, int p2, int kings, byte turn, long key,
+			int eval) {
+		this.p1 = p1;
+		this.p2 = p2;
+		this.kings = kings;
+		this.turn = turn;
+		this.key = key;
+		this.eval = eval;
+	}
+
+	/**
+	 * @return A new position at the start of a game, with player 1 to move.
+	 */
+	public static BitBoard start() {
+		return new BitBoard(0xFFF00000, 0x00000FFF, 0, Checkers.P1_PAWN);
+	}
+
+	/**
+	 * Converts a board in the form described in {@link Checkers}.
+	 * The depth in <code>b[0][1]</code> is ignored.
+	 * @param b The board to convert.
+	 * @return The equivalent BitBoard.
+	 */
+	public static BitBoard fromArray(byte[][] b) {
+		int p1 = 0, p2 = 0, kings = 0;
+
+		for (int s = 0; s < 32; s++) {
+			switch (b[s/4 + 1][s%4]) {
+				case P1_KING: p1 |= 1 << s; kings |= 1 << s; break;
+				case P1_PAWN: p1 |= 1 << s; break;
+				case P2_KING: p2 |= 1 << s; kings |= 1 << s; break;
+				case P2_PAWN: p2 |= 1 << s; break;
+				default: break;
+			}
+		}
+
+		return new BitBoard(p1, p2, kings, b[0][0]);
+	}
+
+	/**
+	 * <p>
+	 * Reads a position written by {@link #toString()}. The text starts with
+	 * the player to move, <code>b</code> for black (player 1) or
+	 * <code>r</code> for red (player 2), and a colon. Then come the eight
+	 * rows from the top, separated by slashes, each with one character for
+	 * each of its four dark squares: <code>b</code> or <code>r</code> for
+	 * a pawn, <code>B</code> or <code>R</code> for a king and
+	 * <code>.</code> for an empty square. The starting position is
+	 * </p><pre>b:rrrr/rrrr/rrrr/..../..../bbbb/bbbb/bbbb</pre>
+	 * @param text The position.
+	 * @return The position.
+	 * @throws IllegalArgumentException If the text is not in this form.
+	 */
+	public static BitBoard fromString(String text)
+			throws IllegalArgumentException {
+		String[] parts = text.trim().split(":");
+		if (parts.length != 2 || !parts[0].matches("[br]")) {
+			throw new IllegalArgumentException("Expected b: or r: before "
+					+ "the board in \"" + text + "\"");
+		}
+
+		String squares = parts[1].replace("/", "");
+		if (squares.length() != 32 || parts[1].split("/", -1).length != 8) {
+			throw new IllegalArgumentException("Expected 8 rows of 4 squares "
+					+ "in \"" + text + "\"");
+		}
+
+		int p1 = 0, p2 = 0, kings = 0;
+
+		for (int s = 0; s < 32; s++) {
+			switch (squares.charAt(s)) {
+				case 'B': p1 |= 1 << s; kings |= 1 << s; break;
+				case 'b': p1 |= 1 << s; break;
+				case 'R': p2 |= 1 << s; kings |= 1 << s; break;
+				case 'r': p2 |= 1 << s; break;
+				case '.': break;
+				default: throw new IllegalArgumentException("Unknown piece '"
+						+ squares.charAt(s) + "' in \"" + text + "\"");
+			}
+		}
+
+		return new BitBoard(p1, p2, kings,
+				parts[0].equals("b") ? P1_PAWN : P2_PAWN);
+	}
+
+	/**
+	 * @return The position in the form read by {@link #fromString(String)}.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder(42);
+		sb.append(turn == P1_PAWN ? "b:" : "r:");
+
+		for (int s = 0; s < 32; s++) {
+			if (s != 0 && s % 4 == 0) {
+				sb.append('/');
+			}
+			sb.append(".bBrR".charAt(pieceIndex(pieceAt(s))));
+		}
+
+		return sb.toString();
+	}
+
+	/**
+	 * @param piece A piece, as in the array form of the board.
+	 * @return Its index in <code>".bBrR"</code>.
+	 */
+	private static int pieceIndex(byte piece) {
+		switch (piece) {
+			case P1_PAWN: return 1;
+			case P1_KING: return 2;
+			case P2_PAWN: return 3;
+			case P2_KING: return 4;
+			default:      return 0;
+		}
+	}
+
+	/**
+	 * Converts this position to the form described in {@link Checkers}.
+	 * The depth in <code>board[0][1]</code> is left at zero.
+	 * @return A new board.
+	 */
+	public byte[][] toArray() {
+		byte[][] b = new byte[HEIGHT + 1][WIDTH / 2];
+		b[0][0] = turn;
+
+		for (int s = 0; s < 32; s++) {
+			b[s/4 + 1][s%4] = pieceAt(s);
+		}
+
+		return b;
+	}
+
+	/**
+	 * @param s A square number.
+	 * @return The piece on that square, as in the array form of the board.
+	 */
+	public byte pieceAt(int s) {
+		int bit = 1 << s;
+		if ((p1 & bit) != 0) {
+			return (kings & bit) != 0 ? P1_KING : P1_PAWN;
+		} else if ((p2 & bit) != 0) {
+			return (kings & bit) != 0 ? P2_KING : P2_PAWN;
+		} else {
+			return UNOCCUPIED_SQUARE;
+		}
+	}
+
+	/** @return The pieces of the player whose turn it is. **/
+	public int own() {
+		return turn == P1_PAWN ? p1 : p2;
+	}
+
+	/** @return The pieces of the player whose turn it is not. **/
+	public int opp() {
+		return turn == P1_PAWN ? p2 : p1;
+	}
+
+	/** @return The unoccupied squares. **/
+	public int empty() {
+		return ~(p1 | p2);
+	}
+
+	/**
+	 * Moves every piece in a set one square in a direction. Pieces that would
+	 * leave the board are dropped.
+	 * @param dir One of {@link #UP_LEFT}, {@link #UP_RIGHT},
+	 * {@link #DOWN_LEFT} or {@link #DOWN_RIGHT}.
+	 * @param x A set of squares.
+	 * @return The squares reached.
+	 */
+	static int shift(int dir, int x) {
+		switch (dir) {
+			case UP_LEFT:
+				return ((x & EVEN_ROWS) >>> 4) | ((x & ODD_ROWS & ~LEFT_EDGE) >>> 5);
+			case UP_RIGHT:
+				return ((x & EVEN_ROWS & ~RIGHT_EDGE) >>> 3) | ((x & ODD_ROWS) >>> 4);
+			case DOWN_LEFT:
+				return ((x & EVEN_ROWS) << 4) | ((x & ODD_ROWS & ~LEFT_EDGE) << 3);
+			default:
+				return ((x & EVEN_ROWS & ~RIGHT_EDGE) << 5) | ((x & ODD_ROWS) << 4);
+		}
+	}
+
+	/**
+	 * @param dir A direction.
+	 * @return The opposite direction. Shifting in one undoes the other.
+	 */
+	static int opposite(int dir) {
+		return 3 - dir;
+	}
+
+	/**
+	 * Gets the pieces of the player whose turn it is that may move in a
+	 * given direction. Pawns only move away from their own side.
+	 * @param dir A direction.
+	 * @return The pieces that may move in that direction.
+	 */
+	private int movers(int dir) {
+		return isForward(dir) ? own() : own() & kings;
+	}
+
+	/**
+	 * @param dir A direction.
+	 * @return Whether the pawns of the player whose turn it is
+	 * move in that direction.
+	 */
+	private boolean isForward(int dir) {
+		return (turn == P1_PAWN) == (dir == UP_LEFT || dir == UP_RIGHT);
+	}
+
+	/**
+	 * @return Whether the player whose turn it is can jump.
+	 */
+	public boolean jumpIsPossible() {
+		int opp = opp(), empty = empty();
+
+		for (int dir = 0; dir < 4; dir++) {
+			if ((shift(dir, shift(dir, movers(dir)) & opp) & empty) != 0) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * @return Whether the player whose turn it is can make any move.
+	 */
+	public boolean moveIsPossible() {
+		int empty = empty();
+
+		for (int dir = 0; dir < 4; dir++) {
+			if ((shift(dir, movers(dir)) & empty) != 0) {
+				return true;
+			}
+		}
+
+		return jumpIsPossible();
+	}
+
+	/**
+	 * Computes every position that can follow this one. Jumps are forced, and
+	 * a jumping piece must keep jumping for as long as it can.
+	 * @return A DSArrayList of new positions, in the same order as the moves
+	 * found by {@link #generateMoves(long[])}.
+	 */
+	public DSArrayList<BitBoard> getChildren() {
+		long[] moves = new long[MAX_MOVES];
+		int count = generateMoves(moves);
+
+		DSArrayList<BitBoard> children = new DSArrayList<BitBoard>(count);
+		for (int i = 0; i < count; i++) {
+			children.add(play(moves[i]));
+		}
+
+		return children;
+	}
+
+	/**
+	 * <p>
+	 * Finds every move that the player whose turn it is can make, without
+	 * creating any objects. Jumps are forced, and a jumping piece must keep
+	 * jumping for as long as it can.
+	 * </p><p>
+	 * Each move is stored as a <code>long</code> made by
+	 * {@link #encodeMove(int, int, int)}. The search keeps one buffer for each
+	 * move that it looks ahead and reuses it for every position at that depth.
+	 * </p>
+	 * @param moves The place to store the moves. Must have room
+	 * for at least {@link #MAX_MOVES} of them.
+	 * @return The number of moves found.
+	 */
+	public int generateMoves(long[] moves) {
+		int count = 0;
+		int opp = opp(), empty = empty();
+
+		// Find all possible jumps.
+		for (int dir = 0; dir < 4; dir++) {
+			int landings = shift(dir, shift(dir, movers(dir)) & opp) & empty;
+			while (landings != 0) {
+				int to = Integer.numberOfTrailingZeros(landings);
+				landings &= landings - 1;
+
+				int jumped = shift(opposite(dir), 1 << to);
+				int from = Integer.numberOfTrailingZeros(
+						shift(opposite(dir), jumped));
+				count = addJumps(from, to, jumped, moves, count);
+			}
+		}
+
+		if (count != 0) {
+			return count;
+		}
+
+		// No jumps were found, so find all possible normal moves.
+		for (int dir = 0; dir < 4; dir++) {
+			int targets = shift(dir, movers(dir)) & empty;
+			while (targets != 0) {
+				int to = Integer.numberOfTrailingZeros(targets);
+				targets &= targets - 1;
+
+				int from = Integer.numberOfTrailingZeros(
+						shift(opposite(dir), 1 << to));
+				moves[count++] = encodeMove(from, to, 0);
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * Continues a sequence of jumps recursively, storing a move for every
+	 * sequence that cannot be continued.
+	 * @param origin The square on which the jumping piece started.
+	 * @param square The square that the piece has reached.
+	 * @param captured The pieces jumped so far.
+	 * @param moves The place to store the moves.
+	 * @param count The number of moves already stored.
+	 * @return The number of moves stored, including the new ones.
+	 */
+	private int addJumps(int origin, int square,
+			int captured, long[] moves, int count) {
+		int bit = 1 << square;
+		boolean isKing = (kings & (1 << origin)) != 0;
+		int opp = opp() & ~captured;
+		int empty = (empty() | (1 << origin) | captured) & ~bit;
+		int before = count;
+
+		for (int dir = 0; dir < 4; dir++) {
+			if (!isKing && !isForward(dir)) {
+				continue; // pawns can't jump backwards
+			}
+
+			int jumped = shift(dir, bit) & opp;
+			int landing = shift(dir, jumped) & empty;
+			if (landing != 0) {
+				count = addJumps(origin, Integer.numberOfTrailingZeros(landing),
+						captured | jumped, moves, count);
+			}
+		}
+
+		if (count == before) { // the sequence can't be continued
+			moves[count++] = encodeMove(origin, square, captured);
+		}
+
+		return count;
+	}
+
+	/**
+	 * Packs a move into a <code>long</code>.
+	 * @param from The square from which the piece moves.
+	 * @param to The square on which the piece lands.
+	 * @param captured The pieces jumped, if any.
+	 * @return The move. The squares are in bits 0-4 and 5-9,
+	 * and the captured pieces in the upper 32 bits.
+	 */
+	public static long encodeMove(int from, int to, int captured) {
+		return from | to << 5 | (long) captured << 32;
+	}
+
+	/**
+	 * @param move A move made by {@link #encodeMove(int, int, int)}.
+	 * @return The square from which the piece moves.
+	 */
+	public static int moveFrom(long move) {
+		return (int) move & 0x1F;
+	}
+
+	/**
+	 * @param move A move made by {@link #encodeMove(int, int, int)}.
+	 * @return The square on which the piece lands.
+	 */
+	public static int moveTo(long move) {
+		return (int) (move >>> 5) & 0x1F;
+	}
+
+	/**
+	 * @param move A move made by {@link #encodeMove(int, int, int)}.
+	 * @return The pieces jumped, if any.
+	 */
+	public static int moveCaptured(long move) {
+		return (int) (move >>> 32);
+	}
+
+	/**
+	 * Writes a move with the squares numbered from 1, as in
+	 * <code>21-17</code> for a move or <code>26x17</code> for a jump.
+	 * @param move A move made by {@link #encodeMove(int, int, int)}.
+	 * @return The move as text.
+	 */
+	public static String moveToString(long move) {
+		return (moveFrom(move) + 1) + (moveCaptured(move) != 0 ? "x" : "-")
+				+ (moveTo(move) + 1);
+	}
+
+	/**
+	 * Creates the position that results from a move,
+	 * leaving this one unchanged.
+	 * @param move A move found by {@link #generateMoves(long[])}.
+	 * @return A new position.
+	 * @see #makeMove(long)
+	 */
+	public BitBoard play(long move) {
+		BitBoard child = copy();
+		child.makeMove(move);
+		return child;
+	}
+
+	/**
+	 * <p>
+	 * Makes a move on this position. Handles coronation,
+	 * changes whose turn it is and updates the hash.
+	 * </p><p>
+	 * The search walks the game tree by making a move, searching the
+	 * position that results and then undoing the move with
+	 * {@link #unmakeMove(long, int)}, so that it needs only one position
+	 * per thread instead of a new one for every board it looks at.
+	 * </p>
+	 * @param move A move found by {@link #generateMoves(long[])}.
+	 * @return The undo record to pass to {@link #unmakeMove(long, int)}.
+	 * It is the kings from before the move, since a move can both capture
+	 * kings and crown one. Everything else can be worked out from the move.
+	 */
+	public int makeMove(long move) {
+		int from = moveFrom(move), to = moveTo(move);
+		int captured = moveCaptured(move);
+		int fromBit = 1 << from, toBit = 1 << to;
+		int oldKings = kings;
+
+		key ^= keyChange(from, to, captured);
+		eval += evalChange(from, to, captured);
+
+		kings &= ~captured;
+		if ((kings & fromBit) != 0) {
+			kings = (kings & ~fromBit) | toBit;
+		} else if ((toBit & (turn == P1_PAWN ? TOP_ROW : BOTTOM_ROW)) != 0) {
+			kings |= toBit; // coronation
+		}
+
+		if (turn == P1_PAWN) {
+			p1 = (p1 & ~fromBit) | toBit;
+			p2 &= ~captured;
+			turn = P2_PAWN;
+		} else {
+			p2 = (p2 & ~fromBit) | toBit;
+			p1 &= ~captured;
+			turn = P1_PAWN;
+		}
+
+		return oldKings;
+	}
+
+	/**
+	 * Undoes {@link #makeMove(long)}.
+	 * @param move The last move made on this position.
+	 * @param oldKings The undo record returned when it was made.
+	 */
+	public void unmakeMove(long move, int oldKings) {
+		int from = moveFrom(move), to = moveTo(move);
+		int captured = moveCaptured(move);
+		int fromBit = 1 << from, toBit = 1 << to;
+
+		if (turn == P2_PAWN) { // player 1 made the move
+			p1 = (p1 & ~toBit) | fromBit;
+			p2 |= captured;
+			turn = P1_PAWN;
+		} else {
+			p2 = (p2 & ~toBit) | fromBit;
+			p1 |= captured;
+			turn = P2_PAWN;
+		}
+
+		kings = oldKings;
+		key ^= keyChange(from, to, captured);
+		eval -= evalChange(from, to, captured);
+	}
+
+	/**
+	 * Computes the change in the hash made by a move. Since the change is
+	 * an XOR, applying it again undoes it.
+	 * @param from The square from which the piece moves.
+	 * @param to The square on which the piece lands.
+	 * @param captured The pieces jumped, if any.
+	 * @return The value to XOR with the hash of the position before
+	 * the move to get the hash of the position after it.
+	 */
+	private long keyChange(int from, int to, int captured) {
+		byte piece = pieceAt(from);
+		long change = Zobrist.P2_TO_MOVE ^ Zobrist.key(piece, from)
+				^ capturedKey(captured);
+
+		if ((kings & (1 << from)) == 0
+				&& ((1 << to) & (turn == P1_PAWN ? TOP_ROW : BOTTOM_ROW)) != 0) {
+			piece = (piece == P1_PAWN) ? P1_KING : P2_KING; // coronation
+		}
+
+		return change ^ Zobrist.key(piece, to);
+	}
+
+	/**
+	 * Computes the change in {@link #eval} made by a move.
+	 * @param from The square from which the piece moves.
+	 * @param to The square on which the piece lands.
+	 * @param captured The pieces jumped, if any.
+	 * @return The value to add to {@link #eval} before the move
+	 * to get its value after the move.
+	 */
+	private int evalChange(int from, int to, int captured) {
+		int mover = (turn == P1_PAWN) ? 0 : 2;
+		int piece = mover + ((kings >>> from) & 1);
+		int change = -PIECE_SQUARE[piece][from];
+
+		if ((kings & (1 << from)) == 0
+				&& ((1 << to) & (turn == P1_PAWN ? TOP_ROW : BOTTOM_ROW)) != 0) {
+			piece = mover + 1; // coronation
+		}
+		change += PIECE_SQUARE[piece][to];
+
+		int victim = 2 - mover;
+		for (int c = captured; c != 0; c &= c - 1) {
+			int square = Integer.numberOfTrailingZeros(c);
+			change -= PIECE_SQUARE[victim + ((kings >>> square) & 1)][square];
+		}
+
+		return change;
+	}
+
+	/**
+	 * @return A new position that is the same as this one.
+	 */
+	public BitBoard copy() {
+		return new BitBoard(p1, p2, kings, turn, key, eval);
+	}
+
+	/**
+	 * @param captured Some of the pieces of the player whose turn it is not.
+	 * @return The XOR of their {@link Zobrist} keys.
+	 */
+	private long capturedKey(int captured) {
+		long[][] keys = Zobrist.PIECES;
+		return (turn == P1_PAWN)
+				? Zobrist.hashSquares(captured & ~kings, keys[2])
+						^ Zobrist.hashSquares(captured & kings, keys[3])
+				: Zobrist.hashSquares(captured & ~kings, keys[0])
+						^ Zobrist.hashSquares(captured & kings, keys[1]);
+	}
+
+	/**
+	 * Scores the position by the number and type of pieces on the board
+	 * and where the kings are. This is {@link #eval}, which is always up to
+	 * date, so it takes no time. Does not check whether the game is over.
+	 * @return The favorability of the position to the player whose turn it
+	 * is, where greater numbers are more favorable.
+	 */
+	public int evaluate() {
+		return (turn == P1_PAWN) ? eval : -eval;
+	}
+
+	/**
+	 * Adds up the {@link #PIECE_SQUARE} values of every piece.
+	 * @param p1 Player 1's pieces.
+	 * @param p2 Player 2's pieces.
+	 * @param kings The kings of both players.
+	 * @return The score of the position for player 1.
+	 */
+	static int evaluate(int p1, int p2, int kings) {
+		return sum(p1 & ~kings, PIECE_SQUARE[0])
+				+ sum(p1 & kings, PIECE_SQUARE[1])
+				+ sum(p2 & ~kings, PIECE_SQUARE[2])
+				+ sum(p2 & kings, PIECE_SQUARE[3]);
+	}
+
+	/**
+	 * @param squares Some squares.
+	 * @param values A value for each square.
+	 * @return The sum of the values of the squares.
+	 */
+	private static int sum(int squares, int[] values) {
+		int sum = 0;
+		for (int c = squares; c != 0; c &= c - 1) {
+			sum += values[Integer.numberOfTrailingZeros(c)];
+		}
+		return sum;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (!(obj instanceof BitBoard))
+			return false;
+
+		BitBoard b = (BitBoard) obj;
+		return p1 == b.p1 && p2 == b.p2 && kings == b.kings && turn == b.turn;
+	}
+
+	@Override
+	public int hashCode() {
+		return (int) (key ^ (key >>> 32));
+	}
+
+}
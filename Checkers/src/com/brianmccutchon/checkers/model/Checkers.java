@@ -9,6 +9,9 @@ import java.util.stream.Stream;
 
 import framework.DSArrayList;
 import framework.DSNode;
+import framework.NodeCache;
+import framework.SearchEngine;
+import framework.TranspositionTable;
 import framework.TwoPlayer;
 
 /**
@@ -32,7 +35,10 @@ import framework.TwoPlayer;
  * {@link Checkers#computerMove(int) computerMove()}
  * and decremented for each child in
  * {@link Checkers#getChildren(Object)
- * getChildren()}.
+ * getChildren()}. A board where it is
+ * <code>0</code> still has children if the
+ * player to move has a jump, so that the tree
+ * does not stop in the middle of an exchange.
  * </p>
  * @author Brian McCutchon
  * @version 0.1.0
@@ -70,6 +76,23 @@ public class Checkers extends TwoPlayer<byte[][]> {
 
 	private CheckersListener list;
 
+	/**
+	 * The moves to play in the opening, or <code>null</code> if there are none.
+	 */
+	private OpeningBook book;
+
+	/**
+	 * Scores the positions at the bottom of a search, with the weights
+	 * for this variant if there are any.
+	 */
+	private FeatureEvaluator evaluator;
+
+	/**
+	 * Thinks during the human's turn, or <code>null</code> if the computer
+	 * only thinks during its own.
+	 */
+	private Ponderer ponderer;
+
 	/**
 	 * The height of the board, including white squares.
 	 * @see #WIDTH
@@ -169,8 +192,8 @@ public class Checkers extends TwoPlayer<byte[][]> {
 	public static final char ILLEGAL_SQUARE = ' ';
 
 	/**
-	 * The number of memos to store. If this limit is reached, old memos will
-	 * be deleted.
+	 * The number of memos to store. Once the memo tables are full, new memos
+	 * replace old ones.
 	 */
 	private static final int NUM_MEMOS = 100_003;
 
@@ -190,9 +213,91 @@ public class Checkers extends TwoPlayer<byte[][]> {
 		isSuicideCheckers = (prefs.modeName == "Suicide");
 		this.prefs = prefs;
 
+		evaluator = FeatureEvaluator.loadDefault(isSuicideCheckers);
+		setSearchEngine(createSearchEngine(prefs, isSuicideCheckers, evaluator));
+		book = isSuicideCheckers ? null : OpeningBook.loadDefault();
+		if (prefs.ponder && getSearchEngine() != null) {
+			ponderer = new Ponderer(getSearchEngine());
+		}
+
 		setBoard();
 	}
 
+	/**
+	 * @param engineName The name of an engine, as in
+	 * {@link Preferences#engineName}.
+	 * @return <code>true</code> if {@link #createSearchEngine(Preferences,
+	 * boolean, FeatureEvaluator)} makes an engine with that name, rather
+	 * than leaving the game to build the whole game tree.
+	 */
+	static boolean isSearchEngine(String engineName) {
+		return Arrays.asList("Alpha-beta", "Off-heap tree", "Lazy SMP", "YBW")
+				.contains(engineName);
+	}
+
+	/**
+	 * Creates the search engine named by {@link Preferences#engineName}.
+	 * @param prefs The game settings.
+	 * @param isSuicideCheckers <code>true</code> if the object
+	 * of the game is to lose.
+	 * @param evaluator Scores the positions at the bottom of the search.
+	 * @return The engine, or <code>null</code> to build the whole game tree.
+	 */
+	static SearchEngine<byte[][]> createSearchEngine(Preferences prefs,
+			boolean isSuicideCheckers, FeatureEvaluator evaluator) {
+		int maxTreeDepth = prefs.treeDepth;
+		Tablebase tablebase = prefs.useTablebase ? Tablebase.loadDefault() : null;
+
+		if ("Alpha-beta".equals(prefs.engineName)) {
+			AlphaBetaSearch engine = new AlphaBetaSearch(maxTreeDepth,
+					isSuicideCheckers, createTable(prefs));
+			engine.setTimeLimit(prefs.moveTime);
+			engine.setTablebase(tablebase);
+			engine.setEvaluator(evaluator);
+			return engine;
+		}
+
+		if ("Off-heap tree".equals(prefs.engineName)) {
+			ArenaTreeSearch engine = new ArenaTreeSearch(maxTreeDepth,
+					isSuicideCheckers, prefs.arenaNodes);
+			engine.setEvaluator(evaluator);
+			return engine;
+		}
+
+		int threads = (prefs.threads > 0) ? prefs.threads
+				: Runtime.getRuntime().availableProcessors();
+
+		if ("Lazy SMP".equals(prefs.engineName)) {
+			LazySmpSearch engine =
+					new LazySmpSearch(maxTreeDepth, isSuicideCheckers, threads,
+							createTable(prefs));
+			engine.setTimeLimit(prefs.moveTime);
+			engine.setTablebase(tablebase);
+			engine.setEvaluator(evaluator);
+			return engine;
+		} else if ("YBW".equals(prefs.engineName)) {
+			YbwcSearch engine =
+					new YbwcSearch(maxTreeDepth, isSuicideCheckers, threads,
+							createTable(prefs));
+			engine.setTimeLimit(prefs.moveTime);
+			engine.setTablebase(tablebase);
+			engine.setEvaluator(evaluator);
+			return engine;
+		} else {
+			return null;
+		}
+	}
+
+	/**
+	 * Creates the table in which a search engine remembers positions.
+	 * @param prefs The game settings.
+	 * @return A table of {@link Preferences#tableMemory} megabytes.
+	 */
+	private static TranspositionTable createTable(Preferences prefs) {
+		return new TranspositionTable(
+				TranspositionTable.sizeFor(prefs.tableMemory * (1L << 20)));
+	}
+
 	@Override
 	public int play() {
 		setBoard();
@@ -200,8 +305,7 @@ public class Checkers extends TwoPlayer<byte[][]> {
 		undoStack = new DSArrayList<byte[][]>();
 		undoStack.add(cloneBoard(board));
 
-		boardValues = new LimitedMap<>(NUM_MEMOS);
-		boardNodes  = new LimitedMap<>(NUM_MEMOS);
+		boardNodes = new NodeCache<>(NUM_MEMOS);
 
 		MemoryMXBean bean = ManagementFactory.getMemoryMXBean();
 		MemoryUsage usage = bean.getHeapMemoryUsage();
@@ -210,6 +314,23 @@ public class Checkers extends TwoPlayer<byte[][]> {
 		return super.play();
 	}
 
+	/**
+	 * Stops the threads that think in the background and those that the
+	 * search engine uses. Call it when the game is over; the computer
+	 * cannot move afterward.
+	 */
+	public void shutdown() {
+		try {
+			if (ponderer != null) {
+				ponderer.shutdown();
+			}
+		} finally {
+			if (getSearchEngine() != null) {
+				getSearchEngine().shutdown();
+			}
+		}
+	}
+
 	/** Gets the board ready for a new game. **/
 	private void setBoard() {
 		for (int i = 1; i<=HEIGHT; i++) {
@@ -247,7 +368,23 @@ public class Checkers extends TwoPlayer<byte[][]> {
 	 *   <code>true</code> if <code>m</code> is legal.
 	 */
 	private boolean moveIsLegal(Move m) {
-		return getLegalMoves(board).contains(m);
+		long move;
+		try {
+			move = m.encode();
+		} catch (IllegalArgumentException e) {
+			return false;
+		}
+
+		long[] moves = new long[BitBoard.MAX_MOVES];
+		int count = BitBoard.fromArray(board).generateMoves(moves);
+
+		for (int i = 0; i < count; i++) {
+			if (moves[i] == move) {
+				return true;
+			}
+		}
+
+		return false;
 	}
 
 	/**
@@ -273,36 +410,52 @@ public class Checkers extends TwoPlayer<byte[][]> {
 	}
 
 	/*
-	 * TODO Improvements to computerMove():
-	 * 1) Use a continuously-built tree.
-	 * 2) Use better game tree nodes.
-	 * 3) Add the following logic: Good things are better if they
-	 *    come sooner. Bad things are better if they come later.
-	 *    Depends on (2).
-	 *    Will probably be instituted in evaluateNode().
-	 * 4) Fix field-of-vision problem: Currently, the computer
-	 *    thinks that sacrificing its pieces will prevent an
-	 *    inevitable evil if sacrifing said pieces pushes said
-	 *    evil beyond the depth of the tree, and thus out of the
-	 *    computer's field of vision. Presumably, this would also
-	 *    cause the computer to allow its opponent to take its
-	 *    pieces if it sees itself getting a king just within
-	 *    its field of vision.
+	 * TODO When the whole game tree is built (the "Tree" engine), good
+	 * things should be better if they come sooner, and bad things better
+	 * if they come later, as the search engines already score them.
+	 * Will probably be instituted in evaluateNode().
 	 */
 	@Override
 	protected void computerMove(int turn) {
 		undoStack.add(board);
 
-		board[0][1] = maxTreeDepth;
+		byte[][] pondered = (ponderer == null) ? null : ponderer.finish(board);
+
+		if (!playBookMove()) {
+			if (pondered != null) {
+				board = pondered;
+			} else {
+				board[0][1] = maxTreeDepth;
+				super.computerMove(turn);
+			}
+		}
+
+		// Think about the next move during the human's turn.
+		if (ponderer != null && isHuman[3 - turn]
+				&& BitBoard.fromArray(board).moveIsPossible()) {
+			ponderer.start(board);
+		}
+	}
 
-		super.computerMove(turn);
+	/**
+	 * Plays a move from the opening book, since the
+	 * opening is the same every game. The book is not used
+	 * if it looks further ahead than {@link #maxTreeDepth}.
+	 * @return <code>true</code> if the position was in the book.
+	 */
+	private boolean playBookMove() {
+		if (book == null || book.depth() > maxTreeDepth) {
+			return false;
+		}
 
-		MemoryUsage heapUsage = ManagementFactory
-				.getMemoryMXBean().getHeapMemoryUsage();
-		System.out.println("Memory used: " +
-				heapUsage.getUsed() / 1_000_000 + "m");
-		
-		System.out.println("Number of memos: " + boardNodes.size());
+		BitBoard b = BitBoard.fromArray(board);
+		long move = book.probe(b);
+		if (move == OpeningBook.NO_MOVE) {
+			return false;
+		}
+
+		board = b.play(move).toArray();
+		return true;
 	}
 
 	/**
@@ -333,9 +486,14 @@ public class Checkers extends TwoPlayer<byte[][]> {
 			board[newSquare.y][newSquare.x] = piece;
 			board[oldSquare.y][oldSquare.x] = UNOCCUPIED_SQUARE;
 
-			Point jumped = getJumpedSquare(oldSquare, newSquare);
-			if (jumped != null) // remove the jumped piece
-				board[jumped.y][jumped.x] = UNOCCUPIED_SQUARE;
+			// Remove the jumped piece, if any. The columns are
+			// converted from array indices to board columns first.
+			if (Math.abs(oldSquare.y - newSquare.y) == 2) {
+				int oldCol = oldSquare.x * 2 + oldSquare.y%2;
+				int newCol = newSquare.x * 2 + newSquare.y%2;
+				board[(oldSquare.y + newSquare.y) / 2]
+						[(oldCol + newCol) / 4] = UNOCCUPIED_SQUARE;
+			}
 
 			oldSquare = newSquare; // Preparing for next jump
 		}
@@ -353,27 +511,6 @@ public class Checkers extends TwoPlayer<byte[][]> {
 		board[0][0] = (board[0][0] == P1_PAWN) ? P2_PAWN : P1_PAWN;
 	}
 
-	/**
-	 * Returns the a Point representing the square that has been jumped
-	 * if a jump has occurred, or <code>null</code> if no jump has occurred. 
-	 * @param oldSquare The square from which the piece has moved.
-	 * @param newSquare The square to which the piece is moving.
-	 * @return The coordinates of the jumped square as an array
-	 * index or <code>null</code> if no piece was jumped.
-	 */
-	private static Point getJumpedSquare(Point oldSquare, Point newSquare) {
-		oldSquare = new Point(oldSquare.x * 2 + oldSquare.y%2, oldSquare.y);
-		newSquare = new Point(newSquare.x * 2 + newSquare.y%2, newSquare.y);
-
-		if (Math.abs(oldSquare.x - newSquare.x) == 2 &&
-				Math.abs(oldSquare.y - newSquare.y) == 2) {
-			return new Point((oldSquare.x + newSquare.x) / 4,
-					(oldSquare.y + newSquare.y) / 2);
-		} else {
-			return null;
-		}
-	}
-
 	@Override
 	protected void drawBoard() {
 		list.boardChanged(board);
@@ -393,243 +530,33 @@ public class Checkers extends TwoPlayer<byte[][]> {
 	protected DSArrayList<byte[][]> getChildren(byte[][] b) {
 		DSArrayList<byte[][]> boards = new DSArrayList<byte[][]>();
 
-		if (b[0][1] == 0) // depth limit reached
+		// The AI works on BitBoards, which are much faster to generate.
+		BitBoard bb = BitBoard.fromArray(b);
+
+		// At the depth limit, only keep going if there is a jump to make.
+		// Otherwise, the computer would not see a piece it leaves hanging,
+		// and would give pieces away to push a loss past the limit.
+		if (b[0][1] == 0 && !bb.jumpIsPossible())
 			return boards;
 
-		for (Move m : getLegalMoves(b)) {
-			byte[][] lb = cloneBoard(b);
-			lb[0][1]--;
-			makeMove(m, lb, true);
+		for (BitBoard child : bb.getChildren()) {
+			byte[][] lb = child.toArray();
+			lb[0][1] = (byte) Math.max(b[0][1] - 1, 0);
 			boards.add(lb);
 		}
 
 		return boards;
 	}
 
-	/**
-	 * Returns all possible moves for the player whose
-	 * turn it is on the given board.
-	 * @param localBoard The board.
-	 * @return A DSArrayList of all possible Moves.
-	 * @see Checkers#getChildren(Object)
-	 */
-	private DSArrayList<Move> getLegalMoves(byte[][] localBoard) {
-		DSArrayList<Move> moves = new DSArrayList<Move>();
-
-		// Define the pieces belonging to the player whose turn it is
-		final byte myPawn = localBoard[0][0];
-		final byte myKing = (localBoard[0][0] == P1_PAWN) ? P1_KING : P2_KING;
-
-		// Find all possible jumps.
-		for (int row = 0; row < HEIGHT; row++) {
-			// The count starts at one for odd rows or zero for even
-			// rows and increases by 2 in order to skip light squares.
-			for (int col = 1-row%2; col < WIDTH; col+=2) {
-				if (localBoard[row+1][col/2] == myPawn ||
-						localBoard[row+1][col/2] == myKing) {
-					moves.append(getMultipleJumps(localBoard, row, col));
-				}
-			}
-		}
-
-		// If no jumps were found, find all possible normal moves.
-		if (moves.size() == 0) { // TODO Add mode for non-forced jumping.
-			// Find all possible non-jump moves
-			for (int row = 0; row < HEIGHT; row++) {
-				// The count starts at one for odd rows or zero for even
-				// rows and increases by 2 in order to skip light squares.
-				for (int col = 1-row%2; col < WIDTH; col+=2) {
-					if (localBoard[row+1][col/2] == myKing) {
-						addMoves(localBoard, row, col, true,  moves);
-						addMoves(localBoard, row, col, false, moves);
-					} else if (localBoard[row+1][col/2] == myPawn) {
-						addMoves(localBoard, row, col,
-								myPawn == P1_PAWN, moves);
-					}
-				}
-			}
-		}
-
-		return moves;
-	}
-
-	/**
-	 * Finds all possible sequences of jumps or
-	 * multiple jumps in one turn for a given piece.
-	 * @param b The board in question.
-	 * @param row The row of the piece in question.
-	 * @param col The column of the piece in question.
-	 * @return A DSArrayList containing all
-	 * legal moves involving jumps.
-	 */
-	private DSArrayList<Move> getMultipleJumps(
-			byte[][] b, int row, int col) {
-
-		// Define the pieces belonging to the player whose turn it is
-		final byte myPawn = b[0][0];
-		final byte myKing = (b[0][0] == P1_PAWN) ? P1_KING : P2_KING;
-
-		// Get the first jump.
-		DSArrayList<Move> singleJumps;
-
-		if (b[row+1][col/2] == myKing) {
-			singleJumps = getJumps(b, row, col, true);
-			singleJumps.append(getJumps(b, row, col, false));
-		} else if (b[row+1][col/2] == myPawn) {
-			singleJumps = getJumps(b, row, col,
-					myPawn == P1_PAWN);
-		} else { // Not my piece -> no legal moves
-			singleJumps = new DSArrayList<Move>();
-		}
-
-		// Get the multiple jumps recursively.
-		DSArrayList<Move> multiJumps = new DSArrayList<Move>();
-
-		for (Move m : singleJumps) {
-			byte[][] newBoard = cloneBoard(b);
-			makeMove(m, newBoard, false);
-
-			// recurse
-			DSArrayList<Move> moves = getMultipleJumps(newBoard,
-					m.newSquares.get(0).y, m.newSquares.get(0).x);
-
-			if(moves.size() == 0) // no multiple jumps exist
-				moves.add(m);
-			else
-				m.prependToAll(moves);
-
-			multiJumps.append(moves);
-		}
-
-		return multiJumps;
-	}
-
-	/**
-	 * Determines whether a jump is possible for a particular piece.
-	 * @param b A game board to examine.
-	 * @param row The row of the piece.
-	 * @param col The column of the piece.
-	 * @return Whether or not a jump is possible.
-	 */
-	protected static boolean jumpIsPossible(byte[][] b, int row, int col) {
-		// Define the pieces belonging to the player whose turn it is
-		byte myPawn = b[0][0];
-		byte myKing = (b[0][0] == P1_PAWN) ? P1_KING : P2_KING;
-		byte thePiece = b[row+1][col/2];
-
-		// Make sure it's my piece
-		if (thePiece == myPawn || thePiece == myKing) {
-			// If it's a king or one of p1's pawns and it's not
-			// in one of the back two ranks, check moving upwards
-			if ((thePiece == P1_PAWN || thePiece == myKing) && row > 1
-					&& (canJump(b, row, col, true, true) ||
-						canJump(b, row, col, true, false))) {
-				return true;
-			}
-
-			// If it's a king or one of p2's pawns and it's not
-			// in one of the two front ranks, check moving downwards
-			if ((thePiece == P2_PAWN || thePiece == myKing) && row < HEIGHT - 2
-					&& (canJump(b, row, col, false, true) ||
-						canJump(b, row, col, false, false))) {
-				return true;
-			}
-		}
-
-		return false;
-	}
-
-	/**
-	 * Computes all possible moves (max: 2) of a specified piece in a specified
-	 * direction (up or down) and stores the result of these moves, if any, to a
-	 * given DSArrayList containing moves. Does NOT check whether the piece
-	 * being moved belongs to the player whose turn it is.
-	 * 
-	 * @param b The board in question.
-	 * @param row The row of the piece in question.
-	 * @param col The column of the piece in question.
-	 * @param movingUp <code>true</code> if and only if the method should
-	 * currently consider moves made upwards.
-	 * @param children The place to store the moves.
-	 */
-	private static void addMoves(byte[][] b, int row, int col,
-			boolean movingUp, DSArrayList<Move> children) {
-
-		int deltaY = movingUp ? -1 : 1;
-
-		if (row + deltaY < HEIGHT && row + deltaY >= 0) {
-			if (col != 0 && b[row+1+deltaY][(col-1)/2]
-					== UNOCCUPIED_SQUARE) {
-				children.add(new Move(col, row,
-						new Point(col-1, row+deltaY)));
-			}
-			if (col != WIDTH - 1 && b[row + 1 + deltaY][(col+1)/2]
-					== UNOCCUPIED_SQUARE) {
-				children.add(new Move(col, row,
-						new Point(col+1, row+deltaY)));
-			}
-		}
-	}
-
 	/**
 	 * Determines whether any move, jump or non-jump,
 	 * is possible on the given board.
 	 * @param b A game board to examine.
 	 * @return Whether any move is possible on the given board.
+	 * @see BitBoard#moveIsPossible()
 	 */
 	protected static boolean moveIsPossible(byte[][] b) {
-		// Define the pieces belonging to the player whose turn it is
-		final byte myPawn = b[0][0];
-		final byte myKing = (b[0][0] == P1_PAWN) ? P1_KING : P2_KING;
-
-		for (int row = 0; row < HEIGHT; row++) {
-			// The count starts at one for odd rows or zero for even
-			// rows and increases by 2 in order to skip light squares.
-			for (int col = 1-row%2; col < WIDTH; col+=2) {
-				if (b[row+1][col/2] == myKing) {
-					if (canMove(b, row, col, true) ||
-							canMove(b, row, col, false)) {
-						return true;
-					}
-				} else if (b[row+1][col/2] == myPawn) {
-					if (canMove(b, row, col, (myPawn == P1_PAWN))) {
-						return true;
-					}
-				}
-			}
-		}
-
-		return jumpIsPossible(b);
-	}
-
-	/**
-	 * Determines whether or not a piece can make a move in a specified
-	 * direction (up or down).
-	 * 
-	 * @param b The board in question.
-	 * @param row The row of the piece in question.
-	 * @param col The column of the piece in question.
-	 * @param movingUp <code>true</code> if this method should check for upward
-	 * moves, <code>false</code> if it should check for downward moves.
-	 * @return Whether or not the piece can make a move in the direction
-	 * specified.
-	 */
-	private static boolean canMove(byte[][] b,
-			int row, int col, boolean movingUp) {
-		int deltaY = (movingUp) ? -1 : 1;
-
-		if (row + deltaY < HEIGHT && row + deltaY >= 0) {
-			if (col != 0 && b[row+1+deltaY][(col-1)/2]
-					== UNOCCUPIED_SQUARE) {
-				return true;
-			}
-			if (col != WIDTH - 1 && b[row + 1 + deltaY][(col+1)/2]
-					== UNOCCUPIED_SQUARE) {
-				return true;
-			}
-		}
-
-		return false;
+		return BitBoard.fromArray(b).moveIsPossible();
 	}
 
 	/**
@@ -723,31 +650,8 @@ public class Checkers extends TwoPlayer<byte[][]> {
 	}
 
 	@Override
-	protected String boardHash(byte[][] b) {
-		String retVal = "" + b[0][0] + b[0][1];
-		for (int i = 1; i < b.length; i++) {
-			for (int j = 0; j < b[i].length; j++) {
-				retVal += b[i][j];
-			}
-		}
-		return retVal;
-	}
-
-	/**
-	 * Like {@link #boardHash(Object)}, but ignores <code>b[0][1]</code>.
-	 * @param b The board to hash.
-	 * @return A stringification of the board.
-	 * @see #maxTreeDepth
-	 * @see #board
-	 */
-	protected String boardHash2(byte[][] b) {
-		String retVal = "" + b[0][0];
-		for (int i = 1; i < b.length; i++) {
-			for (int j = 0; j < b[i].length; j++) {
-				retVal += b[i][j];
-			}
-		}
-		return retVal;
+	protected long boardHash(byte[][] b) {
+		return Zobrist.hashWithDepth(b);
 	}
 
 	@Override
@@ -776,101 +680,26 @@ public class Checkers extends TwoPlayer<byte[][]> {
 	 * @see #evaluateNode(DSGameNode)
 	 */
 	/*
-	 * TODO New board scoring ideas:
-	 * 1) A king has a value of 3 if he is along one of the
-	 *    margins and 3.5 if he is one square away from a margin.
-	 *    This helps the computer to understand trapped kings.
-	 * 2) A pawn has a value of 2 if it is along the back rank,
-	 *    unless the opponent already has a king.
-	 * 3) More advanced pawns are more valuable.
-	 * 4) The less pieces are on the board, the more valuable a piece is.
-	 *    This could be implemented with a curve?
+	 * Back-rank pawns, advancement, piece-count scaling and trapped kings,
+	 * once listed here as scoring ideas, are features of FeatureEvaluator.
+	 * They are turned on by giving them weights in its file.
 	 */
 	@Override
 	protected int evaluateBoard(byte[][] lb) {
-
-		String bh = boardHash2(lb);
-		synchronized (boardValues) {
-			if (boardValues.containsKey(bh))
-				return boardValues.get(bh);
-		}
-
-		int rv;
+		BitBoard b = BitBoard.fromArray(lb);
 
 		// If we have not reached the tree size limit but this
 		// is a leaf, it must be a loss. (evaluateBoard is only
 		// called on leaves.) If we are at the bottom, check for
 		// legal moves.
-		if (lb[0][1] != 0 || !moveIsPossible(lb)) {
-			rv = LOSS;
-		} else {
-			// Score the board
-			rv = 0;
-
-			// At first, get score for P1
-			// Start at row 1 to skip metadata 
-			for (int row = 0; row < HEIGHT; row++) {
-				for (int col = 1-row%2; col < WIDTH; col += 2) {
-					int pieceVal;
-
-					switch (lb[row+1][col/2]) {
-						case P1_PAWN: case P2_PAWN:
-							pieceVal = PAWN_VALUE; break;
-						case P1_KING: case P2_KING:
-							pieceVal = KING_VALUE;
-							if (isTrapped(lb, row, col)) {
-								pieceVal -= 2;
-							} else if (isAlongEdge(row, col)) {
-								pieceVal -= 2;
-							} else if (isAlmostAlongEdge(row, col)) {
-								pieceVal--;
-							}
-							break;
-						default: continue;
-					}
-
-					if (lb[row+1][col/2] == P2_PAWN || lb[row+1][col/2] == P2_KING) {
-						pieceVal = -pieceVal;
-					}
-
-					rv += pieceVal;
-				}
-			}
-
-			// Oops, it's player 2's turn
-			if (lb[0][0] == P2_PAWN)
-				rv = -rv;
-		}
-
-		synchronized (boardValues) {
-			boardValues.put(bh, rv);
+		if (lb[0][1] != 0 || !b.moveIsPossible()) {
+			return LOSS;
 		}
 
-		return rv;
-	}
-
-	/**
-	 * @param row
-	 * @param col
-	 * @return
-	 */
-	private boolean isAlmostAlongEdge(int row, int col) {
-		return (row == 1 || col == 1 || row == HEIGHT-2 || col == WIDTH-2);
-	}
-
-	/**
-	 * @param row
-	 * @param col
-	 * @return
-	 */
-	private boolean isAlongEdge(int row, int col) {
-		return (row == 0 || col == 0 || row == HEIGHT-1 || col == WIDTH-1) &&
-				(row + col != 1) && (HEIGHT-row-1 + WIDTH-col-1 != 1);
-	}
-
-	private boolean isTrapped(byte[][] lb, int row, int col) {
-		// TODO Write method isTrapped()
-		return false;
+		// With the default weights, the BitBoard keeps its score up to
+		// date as moves are made, so there is no need to scan the board
+		// or remember the result.
+		return evaluator.evaluate(b);
 	}
 
 	/**
@@ -911,47 +740,7 @@ public class Checkers extends TwoPlayer<byte[][]> {
 	 * player whose turn it is on the board provided.
 	 */
 	public static boolean jumpIsPossible(byte[][] b) {
-
-		for (int row = 0; row < HEIGHT; row++) {
-			// The count starts at one for odd rows or zero for even rows
-			// and increases by 2 in order to skip light squares.
-			for (int col = 1-row%2; col < WIDTH; col += 2) {
-				if (jumpIsPossible(b, row, col)) {
-					return true;
-				}
-			}
-		}
-
-		return false;
-	}
-
-	/**
-	 * Determines whether a piece can jump on a given board
-	 * in a specified direction.
-	 * @param b the board
-	 * @param row the row of the piece's location.
-	 * @param col the column of the piece's location.
-	 * @param deltaY <code>-1</code> if the piece is moving up,
-	 * <code>1</code> if the piece is moving down.
-	 * @param deltaX <code>-1</code> if the piece is moving left,
-	 * <code>1</code> if the piece is moving right.
-	 * @return Whether or not a jump is possible
-	 */
-	protected static boolean canJump(byte[][] b, int row, int col,
-			boolean movingUp, boolean movingLeft) {
-
-		// These really only show half of the real change in x/y
-		int deltaY = (movingUp)   ? -1 : 1;
-		int deltaX = (movingLeft) ? -1 : 1;
-
-		// Define the opponent's pieces
-		byte oppPawn = (b[0][0] == P1_PAWN) ? P2_PAWN : P1_PAWN;
-		byte oppKing = (b[0][0] == P1_PAWN) ? P2_KING : P1_KING;
-
-		return col + deltaX*2 >= 0 && col + deltaX*2 < WIDTH &&
-				(b[row+1+deltaY][(col+deltaX)/2] == oppKing ||
-				b[row+1+deltaY][(col+deltaX)/2] == oppPawn)
-				&& b[row+1+deltaY*2][(col+deltaX*2)/2] == UNOCCUPIED_SQUARE;
+		return BitBoard.fromArray(b).jumpIsPossible();
 	}
 
 	/**
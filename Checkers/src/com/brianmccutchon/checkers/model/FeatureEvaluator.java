@@ -0,0 +1,339 @@
+package com.brianmccutchon.checkers.model;
+
+import static com.brianmccutchon.checkers.model.BitBoard.*;
+import static com.brianmccutchon.checkers.model.Checkers.*;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Properties;
+
+import framework.Evaluator;
+
+/**
+ * <p>
+ * Scores a position as a weighted sum of {@link Feature}s, such as the
+ * number of pawns or the number of kings along the edge, each counted for
+ * player 1 minus player 2. The weights are in {@link #SCALE}ths of a point,
+ * so that they can be tuned more finely than the scores they add up to,
+ * and are read from a properties file, so that a variant can have tuned
+ * weights without rebuilding the game.
+ * </p><p>
+ * Most features only depend on which piece is on which square, so their
+ * weights are added up into a table with a value for each piece on each
+ * square, and scoring a position is only a matter of looking up its
+ * pieces. If the table is the same as {@link BitBoard#PIECE_SQUARE} and
+ * no other feature is used, as with the {@link #DEFAULT} weights, the
+ * score that each {@link BitBoard} keeps up to date is used instead, and
+ * scoring takes no time at all.
+ * </p>
+ * @author Brian McCutchon
+ */
+public class FeatureEvaluator implements Evaluator<BitBoard> {
+
+	/** The number of weight units in a point. **/
+	public static final int SCALE = 16;
+
+	/**
+	 * The places where the game looks for weights for normal and suicide
+	 * checkers.
+	 */
+	public static final String NORMAL_LOCATION = "data/eval-normal.properties",
+			SUICIDE_LOCATION = "data/eval-suicide.properties";
+
+	/** The highest score that does not look like a win to a search. **/
+	static final int MAX_SCORE = AlphaBetaSearch.MIN_WIN - 1;
+
+	/** The number of features. **/
+	public static final int FEATURES = Feature.values().length;
+
+	/** The evaluator that the engines use if they are not given one. **/
+	public static final FeatureEvaluator DEFAULT =
+			new FeatureEvaluator(defaultWeights());
+
+	/** Something that can be counted in a position. **/
+	public enum Feature {
+
+		/** Pawns. **/
+		PAWN("pawn", PAWN_VALUE * SCALE),
+
+		/** Kings. **/
+		KING("king", KING_VALUE * SCALE),
+
+		/** Kings along the edge, other than in the double corners. **/
+		KING_EDGE("king.edge", -2 * SCALE),
+
+		/** Kings one square away from {@link #KING_EDGE}. **/
+		KING_NEAR_EDGE("king.nearEdge", -SCALE),
+
+		/** Pawns still on their own back row, guarding it from kings. **/
+		BACK_RANK("pawn.backRank", 0),
+
+		/** The number of rows that each pawn has moved forward. **/
+		ADVANCEMENT("pawn.advancement", 0),
+
+		/** Kings with nowhere to move without jumping. **/
+		TRAPPED_KING("king.trapped", 0),
+
+		/**
+		 * The difference in the number of pieces, times the number of pieces
+		 * that have been taken, since a piece counts for more when there
+		 * are fewer left.
+		 */
+		ENDGAME("material.endgame", 0);
+
+		/** The name of the feature in a weights file. **/
+		public final String key;
+
+		/** The weight that the feature has by default. **/
+		public final int defaultWeight;
+
+		private Feature(String key, int defaultWeight) {
+			this.key = key;
+			this.defaultWeight = defaultWeight;
+		}
+
+	}
+
+	/** The weight of each feature, in order. **/
+	private final int[] weights;
+
+	/**
+	 * The value of each piece on each square, in weight units, indexed
+	 * as {@link BitBoard#PIECE_SQUARE} is.
+	 */
+	private final int[][] pieceSquare = new int[4][32];
+
+	/** <code>true</code> if {@link BitBoard#eval} gives the same score. **/
+	private final boolean isDefault;
+
+	/**
+	 * @param weights The weight of each {@link Feature}, in order.
+	 */
+	public FeatureEvaluator(int[] weights) {
+		if (weights.length != FEATURES) {
+			throw new IllegalArgumentException("Expected " + FEATURES
+					+ " weights but got " + weights.length);
+		}
+
+		this.weights = weights.clone();
+
+		boolean matches = true;
+		for (int s = 0; s < 32; s++) {
+			int row = s / 4, bit = 1 << s;
+			int edge = weights[Feature.KING_EDGE.ordinal()] * ((EDGES >>> s) & 1)
+					+ weights[Feature.KING_NEAR_EDGE.ordinal()]
+							* ((NEAR_EDGES >>> s) & 1);
+			int king = weights[Feature.KING.ordinal()] + edge;
+			int pawn = weights[Feature.PAWN.ordinal()];
+
+			// Player 1's pawns move up the board, toward row 0.
+			pieceSquare[0][s] = pawn
+					+ weights[Feature.ADVANCEMENT.ordinal()] * (7 - row)
+					+ ((bit & BOTTOM_ROW) != 0
+							? weights[Feature.BACK_RANK.ordinal()] : 0);
+			pieceSquare[1][s] = king;
+			pieceSquare[2][s] = -(pawn
+					+ weights[Feature.ADVANCEMENT.ordinal()] * row
+					+ ((bit & TOP_ROW) != 0
+							? weights[Feature.BACK_RANK.ordinal()] : 0));
+			pieceSquare[3][s] = -king;
+
+			for (int piece = 0; piece < 4; piece++) {
+				matches &= pieceSquare[piece][s]
+						== PIECE_SQUARE[piece][s] * SCALE;
+			}
+		}
+
+		isDefault = matches && weights[Feature.TRAPPED_KING.ordinal()] == 0
+				&& weights[Feature.ENDGAME.ordinal()] == 0;
+	}
+
+	/**
+	 * @return The weights of the features that the engines
+	 * used before weights could be changed.
+	 */
+	public static int[] defaultWeights() {
+		return Arrays.stream(Feature.values())
+				.mapToInt(f -> f.defaultWeight).toArray();
+	}
+
+	/** @return A copy of the weight of each {@link Feature}, in order. **/
+	public int[] getWeights() {
+		return weights.clone();
+	}
+
+	@Override
+	public int evaluate(BitBoard b) {
+		if (isDefault) {
+			return b.evaluate();
+		}
+
+		int score = sum(b.p1 & ~b.kings, pieceSquare[0])
+				+ sum(b.p1 & b.kings, pieceSquare[1])
+				+ sum(b.p2 & ~b.kings, pieceSquare[2])
+				+ sum(b.p2 & b.kings, pieceSquare[3]);
+
+		int trapped = weights[Feature.TRAPPED_KING.ordinal()];
+		if (trapped != 0) {
+			score += trapped * trappedKings(b);
+		}
+
+		int endgame = weights[Feature.ENDGAME.ordinal()];
+		if (endgame != 0) {
+			score += endgame * endgame(b);
+		}
+
+		// Keep the search from mistaking a good position for a win.
+		score = Math.max(-MAX_SCORE, Math.min(MAX_SCORE, score / SCALE));
+		return (b.turn == P1_PAWN) ? score : -score;
+	}
+
+	/**
+	 * Counts every feature of a position, for tuning the weights. The score
+	 * of the position for player 1 is the sum of the counts times the
+	 * weights, divided by {@link #SCALE}.
+	 * @param b The position.
+	 * @param counts Where to put the count of each {@link Feature}, for
+	 * player 1 minus player 2.
+	 */
+	public static void features(BitBoard b, int[] counts) {
+		int p1Pawns = b.p1 & ~b.kings, p2Pawns = b.p2 & ~b.kings;
+		int p1Kings = b.p1 & b.kings, p2Kings = b.p2 & b.kings;
+
+		counts[Feature.PAWN.ordinal()] =
+				Integer.bitCount(p1Pawns) - Integer.bitCount(p2Pawns);
+		counts[Feature.KING.ordinal()] =
+				Integer.bitCount(p1Kings) - Integer.bitCount(p2Kings);
+		counts[Feature.KING_EDGE.ordinal()] =
+				Integer.bitCount(p1Kings & EDGES)
+				- Integer.bitCount(p2Kings & EDGES);
+		counts[Feature.KING_NEAR_EDGE.ordinal()] =
+				Integer.bitCount(p1Kings & NEAR_EDGES)
+				- Integer.bitCount(p2Kings & NEAR_EDGES);
+		counts[Feature.BACK_RANK.ordinal()] =
+				Integer.bitCount(p1Pawns & BOTTOM_ROW)
+				- Integer.bitCount(p2Pawns & TOP_ROW);
+
+		int advancement = 0;
+		for (int c = p1Pawns; c != 0; c &= c - 1) {
+			advancement += 7 - Integer.numberOfTrailingZeros(c) / 4;
+		}
+		for (int c = p2Pawns; c != 0; c &= c - 1) {
+			advancement -= Integer.numberOfTrailingZeros(c) / 4;
+		}
+		counts[Feature.ADVANCEMENT.ordinal()] = advancement;
+
+		counts[Feature.TRAPPED_KING.ordinal()] = trappedKings(b);
+		counts[Feature.ENDGAME.ordinal()] = endgame(b);
+	}
+
+	/**
+	 * @param b A position.
+	 * @return The number of player 1's kings that cannot move without
+	 * jumping, minus the number of player 2's.
+	 */
+	private static int trappedKings(BitBoard b) {
+		int empty = b.empty(), mobile = 0;
+		for (int dir = 0; dir < 4; dir++) {
+			mobile |= shift(opposite(dir), empty);
+		}
+		int trapped = b.kings & ~mobile;
+		return Integer.bitCount(trapped & b.p1)
+				- Integer.bitCount(trapped & b.p2);
+	}
+
+	/**
+	 * @param b A position.
+	 * @return The {@link Feature#ENDGAME} count.
+	 */
+	private static int endgame(BitBoard b) {
+		int p1 = Integer.bitCount(b.p1), p2 = Integer.bitCount(b.p2);
+		return (p1 - p2) * (24 - p1 - p2);
+	}
+
+	/**
+	 * @param squares Some squares.
+	 * @param values A value for each square.
+	 * @return The sum of the values of the squares.
+	 */
+	private static int sum(int squares, int[] values) {
+		int sum = 0;
+		for (int c = squares; c != 0; c &= c - 1) {
+			sum += values[Integer.numberOfTrailingZeros(c)];
+		}
+		return sum;
+	}
+
+	/**
+	 * Writes the weights as a properties file, with
+	 * one line for each {@link Feature#key}.
+	 * @param file The file to write.
+	 * @throws IOException If the file cannot be written.
+	 */
+	public void save(File file) throws IOException {
+		Properties props = new Properties();
+		for (Feature f : Feature.values()) {
+			props.setProperty(f.key, Integer.toString(weights[f.ordinal()]));
+		}
+		try (Writer out = new FileWriter(file)) {
+			props.store(out, "Checkers evaluation weights, in 1/"
+					+ SCALE + " of a point");
+		}
+	}
+
+	/**
+	 * Reads weights written by {@link #save(File)}. Features that
+	 * are not in the file keep their default weights.
+	 * @param file The file to read.
+	 * @return The evaluator.
+	 * @throws IOException If the file cannot be read or
+	 * a weight is not a number.
+	 */
+	public static FeatureEvaluator load(File file) throws IOException {
+		Properties props = new Properties();
+		try (Reader in = new FileReader(file)) {
+			props.load(in);
+		}
+
+		int[] weights = defaultWeights();
+		for (Feature f : Feature.values()) {
+			String value = props.getProperty(f.key);
+			if (value != null) {
+				try {
+					weights[f.ordinal()] = Integer.parseInt(value.trim());
+				} catch (NumberFormatException e) {
+					throw new IOException("Bad weight for " + f.key
+							+ " in " + file + ": " + value, e);
+				}
+			}
+		}
+
+		return new FeatureEvaluator(weights);
+	}
+
+	/**
+	 * Reads the weights for a variant from {@link #NORMAL_LOCATION}
+	 * or {@link #SUICIDE_LOCATION}, if there are any.
+	 * @param isSuicideCheckers <code>true</code> for suicide checkers.
+	 * @return The evaluator, or {@link #DEFAULT} if there is no file
+	 * or it cannot be read.
+	 */
+	public static FeatureEvaluator loadDefault(boolean isSuicideCheckers) {
+		File file = new File(isSuicideCheckers
+				? SUICIDE_LOCATION : NORMAL_LOCATION);
+		if (file.exists()) {
+			try {
+				return load(file);
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+		return DEFAULT;
+	}
+
+}
@@ -0,0 +1,141 @@
+package com.brianmccutchon.checkers.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <p>
+ * Positions from finished games, each with the result of the game it came
+ * from, for {@link TexelTuner} to fit evaluation weights to. They are usually
+ * made by {@link SelfPlay}.
+ * </p><p>
+ * Each record is the three bitboards of the position, whose turn it is and
+ * the result, in {@link #RECORD_SIZE} bytes. The file starts with
+ * <code>"CKGR"</code>, a version number and the number of records. Like an
+ * {@link OpeningBook}, a file that is read is mapped into memory rather than
+ * copied onto the heap, so files of millions of positions load at once.
+ * </p>
+ * @author Brian McCutchon
+ */
+public class GameRecords {
+
+	/** The results of a game, from player 1's point of view. **/
+	public static final byte LOSS = 0, DRAW = 1, WIN = 2;
+
+	/** The first four bytes of a file of records. **/
+	static final int MAGIC = 0x434B4752; // "CKGR"
+
+	/** The version of the file format. **/
+	static final int VERSION = 1;
+
+	/** The size of the header at the start of a file. **/
+	private static final int HEADER_SIZE = 12;
+
+	/** The size of a record: the bitboards, the turn and the result. **/
+	static final int RECORD_SIZE = 14;
+
+	/** The records. **/
+	private final ByteBuffer records;
+
+	/**
+	 * @param records The records, in the form described above.
+	 */
+	GameRecords(ByteBuffer records) {
+		this.records = records;
+	}
+
+	/**
+	 * @return The number of positions.
+	 */
+	public int size() {
+		return records.capacity() / RECORD_SIZE;
+	}
+
+	/**
+	 * @param i The number of a record.
+	 * @return The position in the record.
+	 */
+	public BitBoard position(int i) {
+		int at = i * RECORD_SIZE;
+		return new BitBoard(records.getInt(at), records.getInt(at + 4),
+				records.getInt(at + 8), records.get(at + 12));
+	}
+
+	/**
+	 * @param i The number of a record.
+	 * @return The result of the game that the position came from:
+	 * {@link #LOSS}, {@link #DRAW} or {@link #WIN} for player 1.
+	 */
+	public byte result(int i) {
+		return records.get(i * RECORD_SIZE + 13);
+	}
+
+	/**
+	 * Adds a record to a buffer.
+	 * @param buf The buffer.
+	 * @param b The position.
+	 * @param result The result of the game, for player 1.
+	 */
+	static void put(ByteBuffer buf, BitBoard b, byte result) {
+		buf.putInt(b.p1).putInt(b.p2).putInt(b.kings).put(b.turn).put(result);
+	}
+
+	/**
+	 * Writes the records in the form described in {@link GameRecords}.
+	 * @param file The file to write.
+	 * @throws IOException If the file cannot be written.
+	 */
+	public void save(File file) throws IOException {
+		try (FileChannel out = FileChannel.open(file.toPath(),
+				StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			header.putInt(MAGIC).putInt(VERSION).putInt(size());
+			header.flip();
+			while (header.hasRemaining()) {
+				out.write(header);
+			}
+
+			ByteBuffer data = records.duplicate();
+			data.clear();
+			while (data.hasRemaining()) {
+				out.write(data);
+			}
+		}
+	}
+
+	/**
+	 * Reads records written by {@link #save(File)}. They are mapped into
+	 * memory rather than read, and stay valid after the file is closed.
+	 * @param file The file to read.
+	 * @return The records.
+	 * @throws IOException If the file cannot be read or is not a file of
+	 * records.
+	 */
+	public static GameRecords load(File file) throws IOException {
+		try (FileChannel in = FileChannel.open(file.toPath(),
+				StandardOpenOption.READ)) {
+			if (in.size() < HEADER_SIZE) {
+				throw new IOException(file + " is not a file of game records");
+			}
+
+			ByteBuffer header = in.map(FileChannel.MapMode.READ_ONLY,
+					0, HEADER_SIZE);
+			if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+				throw new IOException(file + " is not a file of game records");
+			}
+
+			long length = (long) header.getInt() * RECORD_SIZE;
+			if (HEADER_SIZE + length != in.size()) {
+				throw new IOException("Wrong length for " + file);
+			}
+
+			return new GameRecords(in.map(FileChannel.MapMode.READ_ONLY,
+					HEADER_SIZE, length));
+		}
+	}
+
+}
@@ -0,0 +1,205 @@
+package com.brianmccutchon.checkers.model;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import framework.DSArrayList;
+import framework.Evaluator;
+import framework.SearchEngine;
+import framework.TranspositionTable;
+
+/**
+ * <p>
+ * Chooses the computer's move by running the same {@link AlphaBetaSearch}
+ * on several threads at once, all sharing one {@link TranspositionTable}.
+ * </p><p>
+ * The threads do not divide up the work. Instead, each one finds
+ * results that the others can use through the table, and they
+ * soon drift apart into different parts of the tree. To help
+ * this along, every other helper looks one move further ahead
+ * and each thread tries the moves at the root in a different
+ * random order. The move played is the one chosen by the main
+ * thread, and the helpers are stopped as soon as it finishes.
+ * </p><p>
+ * The helpers run on a thread pool of their own rather than the
+ * common pool used by parallel streams, so the number of threads
+ * does not depend on what else is running.
+ * </p>
+ * @author Brian McCutchon
+ */
+public class LazySmpSearch implements SearchEngine<byte[][]> {
+
+	/** The number of entries in the shared table. **/
+	private static final int TABLE_SIZE = 1 << 22;
+
+	/** The searches. The first runs on the calling thread. **/
+	private final AlphaBetaSearch[] workers;
+
+	/** The table shared by the searches. **/
+	private final TranspositionTable table;
+
+	/** Runs the helper searches. **/
+	private final ExecutorService pool;
+
+	/**
+	 * @param depth The number of moves to look ahead.
+	 * @param isSuicideCheckers <code>true</code> if the object
+	 * of the game is to lose.
+	 * @param threads The number of threads to search with,
+	 * including the calling thread.
+	 */
+	public LazySmpSearch(int depth, boolean isSuicideCheckers, int threads) {
+		this(depth, isSuicideCheckers, threads,
+				new TranspositionTable(TABLE_SIZE));
+	}
+
+	/**
+	 * @param depth The number of moves to look ahead.
+	 * @param isSuicideCheckers <code>true</code> if the object
+	 * of the game is to lose.
+	 * @param threads The number of threads to search with,
+	 * including the calling thread.
+	 * @param table The table in which to remember results.
+	 */
+	public LazySmpSearch(int depth, boolean isSuicideCheckers, int threads,
+			TranspositionTable table) {
+		this.table = table;
+
+		workers = new AlphaBetaSearch[Math.max(threads, 1)];
+		for (int i = 0; i < workers.length; i++) {
+			workers[i] = new AlphaBetaSearch(depth + i % 2,
+					isSuicideCheckers, table);
+			workers[i].preparesTable = false;
+		}
+
+		pool = Executors.newFixedThreadPool(Math.max(threads - 1, 1), r -> {
+			Thread t = new Thread(r, "Lazy SMP helper");
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+	@Override
+	public byte[][] search(byte[][] board) {
+		return bestChild(BitBoard.fromArray(board)).toArray();
+	}
+
+	@Override
+	public byte[][] search(byte[][] board, AtomicBoolean stopSignal) {
+		return bestChild(BitBoard.fromArray(board), stopSignal).toArray();
+	}
+
+	/**
+	 * Chooses a move for the player whose turn it is.
+	 * @param root The current position.
+	 * @return The position after the chosen move.
+	 * @throws IllegalStateException If there are no legal moves.
+	 * @see AlphaBetaSearch#bestChild(BitBoard)
+	 */
+	public BitBoard bestChild(BitBoard root) {
+		return bestChild(root, new AtomicBoolean());
+	}
+
+	/**
+	 * Like {@link #bestChild(BitBoard)}, but can be stopped early by
+	 * another thread.
+	 * @param root The current position.
+	 * @param stopSignal Set by another thread to stop the search.
+	 * @return The position after the chosen move.
+	 * @throws IllegalStateException If there are no legal moves.
+	 * @see AlphaBetaSearch#bestChild(BitBoard, AtomicBoolean)
+	 */
+	public BitBoard bestChild(BitBoard root, AtomicBoolean stopSignal) {
+		AlphaBetaSearch.prepareTable(table, root);
+
+		// The helpers stop when the main thread does.
+		AtomicBoolean helperStop = new AtomicBoolean();
+		DSArrayList<Future<?>> helpers = new DSArrayList<>(workers.length);
+
+		for (int i = 1; i < workers.length; i++) {
+			AlphaBetaSearch helper = workers[i];
+			helpers.add(pool.submit(() -> helper.bestChild(root, helperStop)));
+		}
+
+		try {
+			return workers[0].bestChild(root, stopSignal);
+		} finally {
+			helperStop.set(true);
+
+			// Wait for the helpers so that they are not still
+			// running when the next search starts.
+			for (Future<?> helper : helpers) {
+				try {
+					helper.get();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} catch (ExecutionException e) {
+					// The main search has the same problem and reports it.
+				}
+			}
+		}
+	}
+
+	/**
+	 * Sets the endgame database to look positions up in.
+	 * @param tablebase The database, or <code>null</code> for none.
+	 * @see AlphaBetaSearch#setTablebase(Tablebase)
+	 */
+	public void setTablebase(Tablebase tablebase) {
+		for (AlphaBetaSearch worker : workers) {
+			worker.setTablebase(tablebase);
+		}
+	}
+
+	/**
+	 * Sets how to score the positions at the bottom of the search.
+	 * @param evaluator The evaluation.
+	 * @see AlphaBetaSearch#setEvaluator(Evaluator)
+	 */
+	public void setEvaluator(Evaluator<BitBoard> evaluator) {
+		for (AlphaBetaSearch worker : workers) {
+			worker.setEvaluator(evaluator);
+		}
+	}
+
+	/**
+	 * Sets how long to think about each move.
+	 * @param timeLimit The number of milliseconds to spend on each move.
+	 * @see AlphaBetaSearch#setTimeLimit(long)
+	 */
+	public void setTimeLimit(long timeLimit) {
+		for (AlphaBetaSearch worker : workers) {
+			worker.setTimeLimit(timeLimit);
+		}
+	}
+
+	/**
+	 * @return The number of boards examined by all threads in the last search.
+	 */
+	public long getNodeCount() {
+		long count = 0;
+		for (AlphaBetaSearch worker : workers) {
+			count += worker.getNodeCount();
+		}
+		return count;
+	}
+
+	/**
+	 * @return The number of threads that this engine searches with.
+	 */
+	public int getThreadCount() {
+		return workers.length;
+	}
+
+	/**
+	 * Stops the helper threads. The engine cannot be used afterwards.
+	 */
+	@Override
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+}
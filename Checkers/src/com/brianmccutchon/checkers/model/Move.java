@@ -59,6 +59,51 @@ public class Move {
 		}
 	}
 	
+	/**
+	 * Converts this move to the form used by {@link BitBoard}. Only the
+	 * square where the piece starts, the square where it ends up and the
+	 * pieces that it jumps are kept.
+	 * @return The move as made by {@link BitBoard#encodeMove(int, int, int)}.
+	 * @throws IllegalArgumentException If the move leaves the dark squares of
+	 * the board or is not made up of diagonal steps or jumps.
+	 */
+	long encode() throws IllegalArgumentException {
+		int captured = 0;
+		int stepSize = (newSquares.size() == 1) ? 0 : 2;
+		Point from = oldSquare;
+
+		for (Point to : newSquares) {
+			int dx = Math.abs(to.x - from.x), dy = Math.abs(to.y - from.y);
+			if (dx != dy || (stepSize != 0 && dy != stepSize)
+					|| dy < 1 || dy > 2) {
+				throw new IllegalArgumentException("Not a diagonal move: " + this);
+			}
+
+			if (dy == 2) {
+				captured |= 1 << square((from.x + to.x) / 2, (from.y + to.y) / 2);
+			}
+			from = to;
+		}
+
+		return BitBoard.encodeMove(square(oldSquare.x, oldSquare.y),
+				square(from.x, from.y), captured);
+	}
+
+	/**
+	 * @param x A column, as in {@link #oldSquare}.
+	 * @param y A row, as in {@link #oldSquare}.
+	 * @return The number of the square, as in {@link BitBoard}.
+	 * @throws IllegalArgumentException If the square is not a dark square.
+	 */
+	private static int square(int x, int y) throws IllegalArgumentException {
+		if (x < 0 || x >= Checkers.WIDTH || y < 0 || y >= Checkers.HEIGHT
+				|| (x + y) % 2 == 0) {
+			throw new IllegalArgumentException(
+					"Not a dark square: (" + x + "," + y + ")");
+		}
+		return y*4 + x/2;
+	}
+
 	public DSArrayList<Point> getJumpedSquares() {
 		// TODO Auto-generated method stub
 		return null;
@@ -0,0 +1,210 @@
+package com.brianmccutchon.checkers.model;
+
+import static com.brianmccutchon.checkers.model.Checkers.*;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Decides the order in which a search tries the moves from a position.
+ * Alpha-beta prunes the most when the best move is tried first, so that
+ * the rest can be shown to be worse with as little work as possible.
+ * </p><p>
+ * The move stored in the transposition table comes first, since it was
+ * the best the last time the position was searched. Jumps come next, the
+ * ones that gain the most material first: the kings and pawns captured
+ * and any pawn crowned. Then come the killer moves, which caused a cutoff
+ * at the same distance from the root in another position, and then the
+ * other quiet moves, by their history score: how often, and how deep,
+ * each move from one square to another has caused a cutoff anywhere in
+ * the tree.
+ * </p><p>
+ * The moves themselves are not reordered. Instead, the indices of the
+ * moves are, since the table stores the best move as its index among the
+ * moves found by {@link BitBoard#generateMoves(long[])}. An orderer keeps
+ * what it learns from one search to the next and must be used by only one
+ * thread.
+ * </p>
+ * @author Brian McCutchon
+ */
+public class MoveOrderer {
+
+	/** The number of killer moves kept for each ply. **/
+	static final int KILLERS = 2;
+
+	/** The score of the move from the table. **/
+	private static final int TABLE_MOVE_SCORE = 1 << 30;
+
+	/** Added to the score of a jump. **/
+	private static final int CAPTURE_SCORE = 1 << 29;
+
+	/** The score of the first killer move. The second scores one less. **/
+	private static final int KILLER_SCORE = 1 << 28;
+
+	/** History scores are halved when any of them gets this high. **/
+	private static final int MAX_HISTORY = 1 << 24;
+
+	/**
+	 * The killer moves at each ply, most recent first,
+	 * or <code>0</code> where there are none.
+	 */
+	private final long[][] killers;
+
+	/** The history scores for each player, by start and end square. **/
+	private final int[][][] history = new int[2][32][32];
+
+	/** The indices of the moves at each ply, in the order to try them. **/
+	private final int[][] orderBuffers;
+
+	/** The score of each move at each ply. **/
+	private final int[][] scoreBuffers;
+
+	/**
+	 * Creates an orderer with nothing learned yet.
+	 * @param maxPly The most moves from the root that the search can go.
+	 */
+	public MoveOrderer(int maxPly) {
+		killers = new long[maxPly][KILLERS];
+		orderBuffers = new int[maxPly][BitBoard.MAX_MOVES];
+		scoreBuffers = new int[maxPly][BitBoard.MAX_MOVES];
+	}
+
+	/**
+	 * Gets ready for a search from a new position. The killer moves belong
+	 * to the old positions, so they are forgotten, and the history scores
+	 * are halved so that what was learned recently counts for more.
+	 */
+	public void newSearch() {
+		for (long[] k : killers) {
+			k[0] = k[1] = 0;
+		}
+		ageHistory();
+	}
+
+	/**
+	 * Forgets everything.
+	 */
+	public void clear() {
+		newSearch();
+		for (int[][] side : history) {
+			for (int[] from : side) {
+				Arrays.fill(from, 0);
+			}
+		}
+	}
+
+	/**
+	 * Orders the moves from a position.
+	 * @param b The position.
+	 * @param moves The moves from the position, as found by
+	 * {@link BitBoard#generateMoves(long[])}.
+	 * @param count The number of moves.
+	 * @param tableMove The index of the move from the table,
+	 * or {@link framework.TranspositionTable#NO_MOVE}.
+	 * @param ply The number of moves made since the root.
+	 * @return The indices of the moves, in the order to try them. Only the
+	 * first <code>count</code> are used, and the array is reused the next
+	 * time a position at the same ply is ordered.
+	 */
+	public int[] order(BitBoard b, long[] moves, int count, int tableMove,
+			int ply) {
+		int[] order = orderBuffers[ply];
+		int[] scores = scoreBuffers[ply];
+		long[] k = killers[ply];
+		int[][] h = history[side(b)];
+
+		for (int i = 0; i < count; i++) {
+			long move = moves[i];
+			int score;
+
+			if (i == tableMove) {
+				score = TABLE_MOVE_SCORE;
+			} else if (BitBoard.moveCaptured(move) != 0) {
+				score = CAPTURE_SCORE + gain(b, move);
+			} else if (move == k[0]) {
+				score = KILLER_SCORE;
+			} else if (move == k[1]) {
+				score = KILLER_SCORE - 1;
+			} else {
+				score = h[BitBoard.moveFrom(move)][BitBoard.moveTo(move)];
+			}
+
+			// Insertion sort, since there are only a few moves.
+			int j = i;
+			while (j > 0 && scores[j - 1] < score) {
+				scores[j] = scores[j - 1];
+				order[j] = order[j - 1];
+				j--;
+			}
+			scores[j] = score;
+			order[j] = i;
+		}
+
+		return order;
+	}
+
+	/**
+	 * Learns from a move that caused a cutoff.
+	 * @param b The position from which the move was made.
+	 * @param move The move.
+	 * @param depth The number of moves that were left to look ahead.
+	 * @param ply The number of moves made since the root.
+	 */
+	public void cutoff(BitBoard b, long move, int depth, int ply) {
+		if (BitBoard.moveCaptured(move) != 0) {
+			return; // Jumps are already tried early.
+		}
+
+		long[] k = killers[ply];
+		if (k[0] != move) {
+			k[1] = k[0];
+			k[0] = move;
+		}
+
+		int[] h = history[side(b)][BitBoard.moveFrom(move)];
+		h[BitBoard.moveTo(move)] += depth * depth;
+		if (h[BitBoard.moveTo(move)] > MAX_HISTORY) {
+			ageHistory();
+		}
+	}
+
+	/**
+	 * @param b A position.
+	 * @param move A jump from the position.
+	 * @return The material that the jump wins.
+	 */
+	static int gain(BitBoard b, long move) {
+		int captured = BitBoard.moveCaptured(move);
+		int kings = Integer.bitCount(captured & b.kings);
+		int gain = KING_VALUE * kings
+				+ PAWN_VALUE * (Integer.bitCount(captured) - kings);
+
+		int crown = (b.turn == P1_PAWN) ? BitBoard.TOP_ROW : BitBoard.BOTTOM_ROW;
+		if ((b.kings & (1 << BitBoard.moveFrom(move))) == 0
+				&& (crown & (1 << BitBoard.moveTo(move))) != 0) {
+			gain += KING_VALUE - PAWN_VALUE;
+		}
+
+		return gain;
+	}
+
+	/**
+	 * @param b A position.
+	 * @return The index of the player whose turn it is in {@link #history}.
+	 */
+	private static int side(BitBoard b) {
+		return (b.turn == P1_PAWN) ? 0 : 1;
+	}
+
+	/** Halves every history score. **/
+	private void ageHistory() {
+		for (int[][] side : history) {
+			for (int[] from : side) {
+				for (int to = 0; to < from.length; to++) {
+					from[to] >>= 1;
+				}
+			}
+		}
+	}
+
+}
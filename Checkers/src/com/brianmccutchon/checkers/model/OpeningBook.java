@@ -0,0 +1,228 @@
+package com.brianmccutchon.checkers.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * <p>
+ * Moves to play in the opening, made by {@link OpeningBookBuilder}. The
+ * computer plays a move from the book at once, without searching, whenever
+ * the position is in it.
+ * </p><p>
+ * The book is a list of entries sorted by the {@link Zobrist} hash of the
+ * position, so a position is found by binary search. Each entry holds the
+ * hash, a move in the form of {@link BitBoard#encodeMove(int, int, int)}
+ * and a weight. A position with several good moves has an entry for each,
+ * and one of them is chosen at random, in proportion to their weights.
+ * </p><p>
+ * The file starts with <code>"CKBK"</code>, a version number, the
+ * {@link #depth() depth} of the search that chose the moves and the
+ * number of entries, followed by the entries. Like a {@link Tablebase}, a
+ * book read from a file is mapped into memory rather than copied onto the
+ * heap.
+ * </p><p>
+ * The book assumes that the object of the game is to win, so it must not
+ * be used for suicide checkers.
+ * </p>
+ * @author Brian McCutchon
+ */
+public class OpeningBook {
+
+	/** Returned by {@link #probe(BitBoard)} for positions not in the book. **/
+	public static final long NO_MOVE = -1;
+
+	/** The first four bytes of a book file. **/
+	static final int MAGIC = 0x434B424B; // "CKBK"
+
+	/** The version of the file format. **/
+	static final int VERSION = 2;
+
+	/** The size of the header at the start of a book file. **/
+	private static final int HEADER_SIZE = 16;
+
+	/** The size of an entry: the hash, the move and the weight. **/
+	static final int ENTRY_SIZE = 20;
+
+	/** The place where the game looks for a book. **/
+	public static final String DEFAULT_LOCATION = "data/book.ckbk";
+
+	/** The book read by {@link #loadDefault()}. **/
+	private static OpeningBook defaultBook;
+
+	/** The entries, sorted by hash. **/
+	private final ByteBuffer entries;
+
+	/** The number of moves looked ahead to choose the moves. **/
+	private final int depth;
+
+	/**
+	 * @param entries The entries, sorted by hash.
+	 * @param depth The number of moves looked ahead to choose the moves.
+	 */
+	OpeningBook(ByteBuffer entries, int depth) {
+		this.entries = entries;
+		this.depth = depth;
+	}
+
+	/**
+	 * @return The number of moves looked ahead to choose the moves. A game
+	 * that looks fewer moves ahead than this should not use the book, or
+	 * the computer would play the opening better than it was asked to.
+	 */
+	public int depth() {
+		return depth;
+	}
+
+	/**
+	 * @return The number of entries in the book.
+	 */
+	public int size() {
+		return entries.capacity() / ENTRY_SIZE;
+	}
+
+	/**
+	 * Chooses a move from the book.
+	 * @param b The position.
+	 * @return One of the moves for the position, chosen at random in
+	 * proportion to their weights, or {@link #NO_MOVE} if the position
+	 * is not in the book.
+	 */
+	public long probe(BitBoard b) {
+		long[] legal = new long[BitBoard.MAX_MOVES];
+		int legalCount = b.generateMoves(legal);
+
+		long[] moves = new long[legalCount];
+		int[] weights = new int[legalCount];
+		int count = 0;
+		int total = 0;
+
+		for (int i = first(b.key); i < size() && key(i) == b.key; i++) {
+			long move = entries.getLong(i * ENTRY_SIZE + 8);
+
+			// Two positions may have the same hash, so
+			// only moves that are legal here are used.
+			for (int j = 0; j < legalCount; j++) {
+				if (legal[j] == move && count < moves.length) {
+					moves[count] = move;
+					weights[count] = entries.getInt(i * ENTRY_SIZE + 16);
+					total += weights[count++];
+				}
+			}
+		}
+
+		if (count == 0) {
+			return NO_MOVE;
+		}
+
+		int choice = ThreadLocalRandom.current().nextInt(total);
+		int i = 0;
+		while (choice >= weights[i]) {
+			choice -= weights[i++];
+		}
+
+		return moves[i];
+	}
+
+	/**
+	 * @param i The number of an entry.
+	 * @return The hash of the position in the entry.
+	 */
+	private long key(int i) {
+		return entries.getLong(i * ENTRY_SIZE);
+	}
+
+	/**
+	 * @param key The hash of a position.
+	 * @return The number of the first entry with a hash that is not less
+	 * than <code>key</code>.
+	 */
+	private int first(long key) {
+		int low = 0, high = size();
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (key(mid) < key) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Writes the book in the form described in {@link OpeningBook}.
+	 * @param file The file to write.
+	 * @throws IOException If the file cannot be written.
+	 */
+	public void save(File file) throws IOException {
+		try (FileChannel out = FileChannel.open(file.toPath(),
+				StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			header.putInt(MAGIC).putInt(VERSION).putInt(depth).putInt(size());
+			header.flip();
+			while (header.hasRemaining()) {
+				out.write(header);
+			}
+
+			ByteBuffer data = entries.duplicate();
+			data.clear();
+			while (data.hasRemaining()) {
+				out.write(data);
+			}
+		}
+	}
+
+	/**
+	 * Reads a book written by {@link #save(File)}. The entries are mapped
+	 * into memory rather than read, and stay valid after the file is closed.
+	 * @param file The file to read.
+	 * @return The book.
+	 * @throws IOException If the file cannot be read or is not a book.
+	 */
+	public static OpeningBook load(File file) throws IOException {
+		try (FileChannel in = FileChannel.open(file.toPath(),
+				StandardOpenOption.READ)) {
+			if (in.size() < HEADER_SIZE) {
+				throw new IOException(file + " is not an opening book");
+			}
+
+			ByteBuffer header = in.map(FileChannel.MapMode.READ_ONLY,
+					0, HEADER_SIZE);
+			if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+				throw new IOException(file + " is not an opening book");
+			}
+
+			int depth = header.getInt();
+			long length = (long) header.getInt() * ENTRY_SIZE;
+			if (HEADER_SIZE + length != in.size()) {
+				throw new IOException("Wrong length for " + file);
+			}
+
+			return new OpeningBook(in.map(FileChannel.MapMode.READ_ONLY,
+					HEADER_SIZE, length), depth);
+		}
+	}
+
+	/**
+	 * Reads the book at {@link #DEFAULT_LOCATION}, if there is one.
+	 * It is only read once, and then shared by every game.
+	 * @return The book, or <code>null</code> if there is none.
+	 */
+	public static synchronized OpeningBook loadDefault() {
+		File file = new File(DEFAULT_LOCATION);
+		if (defaultBook == null && file.exists()) {
+			try {
+				defaultBook = load(file);
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+		return defaultBook;
+	}
+
+}
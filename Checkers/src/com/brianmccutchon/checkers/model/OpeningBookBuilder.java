@@ -0,0 +1,157 @@
+package com.brianmccutchon.checkers.model;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import framework.LongArrayList;
+
+/**
+ * <p>
+ * Builds an {@link OpeningBook} by searching every position in the
+ * first few moves of the game.
+ * </p><p>
+ * Each move from a position is scored with a deep {@link AlphaBetaSearch}.
+ * The best move goes into the book, and so does any move within
+ * {@link #MARGIN} of it, with a lower weight, so that the computer does not
+ * always play the same game. Every reply is followed, not only the moves in
+ * the book, since the opponent may play anything. The positions at each
+ * ply are searched in parallel.
+ * </p>
+ * @author Brian McCutchon
+ */
+public final class OpeningBookBuilder {
+
+	/** How much worse than the best move a move may be to go in the book. **/
+	static final int MARGIN = 1;
+
+	/** Searches on each thread, so that each keeps its table. **/
+	private final ThreadLocal<AlphaBetaSearch> searches;
+
+	/** The number of moves to look ahead from each position. **/
+	private final int depth;
+
+	private OpeningBookBuilder(int depth) {
+		this.depth = depth;
+		searches = ThreadLocal.withInitial(
+				() -> new AlphaBetaSearch(depth, false));
+	}
+
+	/**
+	 * Builds a book.
+	 * @param root The position at the start of the game.
+	 * @param plies The number of moves from the start to put in the book.
+	 * @param depth The number of moves to look ahead from each position.
+	 * @return The book.
+	 */
+	public static OpeningBook build(BitBoard root, int plies, int depth) {
+		OpeningBookBuilder builder = new OpeningBookBuilder(depth);
+		List<Entry> entries = new ArrayList<>();
+
+		List<BitBoard> level = new ArrayList<>();
+		level.add(root);
+		// The hashes of the positions found so far, sorted.
+		long[] seen = { root.key };
+
+		for (int ply = 0; ply < plies && !level.isEmpty(); ply++) {
+			entries.addAll(level.parallelStream()
+					.flatMap(b -> builder.choose(b).stream())
+					.collect(Collectors.toList()));
+
+			// Every position one move later that has not been seen yet.
+			// Sorting them by hash puts the repeats next to each other.
+			List<BitBoard> children = new ArrayList<>();
+			for (BitBoard b : level) {
+				for (BitBoard child : b.getChildren()) {
+					children.add(child);
+				}
+			}
+			children.sort(Comparator.comparingLong((BitBoard b) -> b.key));
+
+			List<BitBoard> next = new ArrayList<>();
+			LongArrayList keys = new LongArrayList();
+			for (BitBoard child : children) {
+				boolean repeat = !keys.isEmpty()
+						&& keys.get(keys.size() - 1) == child.key;
+				if (!repeat && Arrays.binarySearch(seen, child.key) < 0) {
+					next.add(child);
+					keys.add(child.key);
+				}
+			}
+
+			long[] found = Arrays.copyOf(seen, seen.length + keys.size());
+			System.arraycopy(keys.toArray(), 0, found, seen.length, keys.size());
+			Arrays.sort(found);
+			seen = found;
+			level = next;
+		}
+
+		entries.sort(Comparator.comparingLong((Entry e) -> e.key));
+
+		ByteBuffer buf = ByteBuffer.allocate(
+				entries.size() * OpeningBook.ENTRY_SIZE);
+		for (Entry e : entries) {
+			buf.putLong(e.key).putLong(e.move).putInt(e.weight);
+		}
+
+		return new OpeningBook(buf, depth);
+	}
+
+	/**
+	 * Chooses the moves to put in the book for a position.
+	 * @param b The position.
+	 * @return The entries for the position.
+	 */
+	private List<Entry> choose(BitBoard b) {
+		long[] moves = new long[BitBoard.MAX_MOVES];
+		int count = b.generateMoves(moves);
+		List<Entry> chosen = new ArrayList<>();
+
+		if (count == 1) {
+			chosen.add(new Entry(b.key, moves[0], 1));
+			return chosen;
+		}
+
+		AlphaBetaSearch search = searches.get();
+		int[] scores = new int[count];
+		int best = Integer.MIN_VALUE;
+
+		for (int i = 0; i < count; i++) {
+			scores[i] = -search.score(b.play(moves[i]), depth - 1);
+			best = Math.max(best, scores[i]);
+		}
+
+		for (int i = 0; i < count; i++) {
+			if (best - scores[i] <= MARGIN) {
+				chosen.add(new Entry(b.key, moves[i],
+						1 + MARGIN - (best - scores[i])));
+			}
+		}
+
+		return chosen;
+	}
+
+	/** A move in the book. **/
+	private static final class Entry {
+
+		/** The hash of the position. **/
+		final long key;
+
+		/** The move. **/
+		final long move;
+
+		/** How often to choose the move. **/
+		final int weight;
+
+		Entry(long key, long move, int weight) {
+			this.key = key;
+			this.move = move;
+			this.weight = weight;
+		}
+
+	}
+
+}
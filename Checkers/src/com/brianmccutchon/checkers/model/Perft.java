@@ -0,0 +1,137 @@
+package com.brianmccutchon.checkers.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * <p>
+ * Counts the positions that can be reached from a position in an exact
+ * number of moves. The counts from the starting position are well known,
+ * so they show whether the move generator is correct, and the time
+ * taken to find them shows how fast it is.
+ * </p><p>
+ * A "divide" gives the count for each move from the position
+ * separately, which narrows down where a wrong count comes from.
+ * </p>
+ * @author Brian McCutchon
+ * @see com.brianmccutchon.checkers.cli.PerftCommand
+ */
+public final class Perft {
+
+	private Perft() {}
+
+	/**
+	 * Counts the positions reachable in exactly <code>depth</code> moves.
+	 * Positions where the game ends sooner are not counted.
+	 * @param b The position to start from. It is not changed.
+	 * @param depth The number of moves to make.
+	 * @return The number of positions.
+	 */
+	public static long perft(BitBoard b, int depth) {
+		if (depth <= 0) {
+			return 1;
+		}
+		return perft(b.copy(), depth, new long[depth][BitBoard.MAX_MOVES]);
+	}
+
+	/**
+	 * The recursive part of {@link #perft(BitBoard, int)}.
+	 * @param b The position. Moves are made on it and undone.
+	 * @param depth The number of moves left to make. At least 1.
+	 * @param buffers A move buffer for each move left to make.
+	 * @return The number of positions.
+	 */
+	private static long perft(BitBoard b, int depth, long[][] buffers) {
+		long[] moves = buffers[depth - 1];
+		int count = b.generateMoves(moves);
+
+		// The positions one move away needn't be made to be counted.
+		if (depth == 1) {
+			return count;
+		}
+
+		long nodes = 0;
+		for (int i = 0; i < count; i++) {
+			int undo = b.makeMove(moves[i]);
+			nodes += perft(b, depth - 1, buffers);
+			b.unmakeMove(moves[i], undo);
+		}
+
+		return nodes;
+	}
+
+	/**
+	 * Counts the positions reachable in exactly <code>depth</code>
+	 * moves after each move from a position.
+	 * @param b The position to start from. It is not changed.
+	 * @param depth The number of moves to make, including the first.
+	 * @param threads The number of threads to divide the moves between.
+	 * @return The moves, as made by {@link BitBoard#encodeMove(int, int, int)},
+	 * in the order generated, and the count for each.
+	 * @throws InterruptedException If interrupted while waiting for
+	 * the threads.
+	 */
+	public static Divide divide(BitBoard b, int depth, int threads)
+			throws InterruptedException {
+		long[] buffer = new long[BitBoard.MAX_MOVES];
+		int count = b.generateMoves(buffer);
+		Divide result = new Divide(count);
+
+		ExecutorService pool = Executors.newFixedThreadPool(
+				Math.max(1, Math.min(threads, count)));
+
+		try {
+			List<Future<Long>> counts = new ArrayList<>(count);
+
+			for (int i = 0; i < count; i++) {
+				long move = buffer[i];
+				result.moves[i] = move;
+				counts.add(pool.submit(() -> perft(b.play(move), depth - 1)));
+			}
+
+			for (int i = 0; i < count; i++) {
+				result.counts[i] = counts.get(i).get();
+			}
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			pool.shutdown();
+		}
+
+		return result;
+	}
+
+	/**
+	 * The result of {@link Perft#divide(BitBoard, int, int)}.
+	 */
+	public static final class Divide {
+
+		/** The moves from the position. **/
+		public final long[] moves;
+
+		/** The number of positions reached after each move. **/
+		public final long[] counts;
+
+		Divide(int size) {
+			moves = new long[size];
+			counts = new long[size];
+		}
+
+		/**
+		 * @return The number of positions reached after all of the moves.
+		 */
+		public long total() {
+			long total = 0;
+			for (long c : counts) {
+				total += c;
+			}
+			return total;
+		}
+
+	}
+
+}
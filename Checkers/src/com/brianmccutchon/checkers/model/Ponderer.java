@@ -0,0 +1,137 @@
+package com.brianmccutchon.checkers.model;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import framework.DSArrayList;
+import framework.SearchEngine;
+
+/**
+ * <p>
+ * Thinks about the computer's next move while the human thinks about
+ * theirs.
+ * </p><p>
+ * After the computer moves, the engine guesses the human's reply by
+ * searching for the human's best move, unless the human has only one. Then
+ * it searches the position after that reply as if it were already the
+ * computer's turn. If the human plays the move that was guessed, the result
+ * is ready, or at least well on its way. If not, the search is stopped and
+ * thrown away, though whatever it put in the engine's transposition table
+ * is still there.
+ * </p><p>
+ * The engine is only used by one thread at a time: {@link #finish(byte[][])}
+ * waits for the background search to stop before it returns.
+ * </p>
+ * @author Brian McCutchon
+ */
+final class Ponderer {
+
+	/** The engine that thinks in the background. **/
+	private final SearchEngine<byte[][]> engine;
+
+	/** Runs the background search. **/
+	private final ExecutorService thread =
+			Executors.newSingleThreadExecutor(r -> {
+				Thread t = new Thread(r, "Ponder");
+				t.setDaemon(true);
+				return t;
+			});
+
+	/** Set to stop the background search. **/
+	private AtomicBoolean stopSignal;
+
+	/** The position after the guessed reply, once it is known. **/
+	private volatile BitBoard guess;
+
+	/** The computer's answer to the guessed reply. **/
+	private Future<byte[][]> answer;
+
+	/**
+	 * @param engine The engine that chooses the computer's moves.
+	 */
+	Ponderer(SearchEngine<byte[][]> engine) {
+		this.engine = engine;
+	}
+
+	/**
+	 * Starts thinking in the background.
+	 * @param board The board after the computer's move,
+	 * with the human to move. It is not modified.
+	 */
+	void start(byte[][] board) {
+		finish(null);
+
+		AtomicBoolean stop = new AtomicBoolean();
+		byte[][] position = Checkers.cloneBoardStatic(board);
+		DSArrayList<BitBoard> replies = BitBoard.fromArray(board).getChildren();
+		stopSignal = stop;
+
+		// A forced reply is known at once, so the human cannot
+		// play it before the guess is made.
+		guess = (replies.size() == 1) ? replies.get(0) : null;
+
+		answer = thread.submit(() -> {
+			BitBoard reply = guess;
+			if (reply == null) {
+				reply = BitBoard.fromArray(engine.search(position, stop));
+				if (stop.get()) {
+					return null;
+				}
+				guess = reply;
+			}
+			return reply.moveIsPossible()
+					? engine.search(reply.toArray(), stop) : null;
+		});
+	}
+
+	/**
+	 * Stops thinking in the background and waits for it to stop.
+	 * @param board The board after the human's move, or <code>null</code>.
+	 * @return The computer's move, as {@link SearchEngine#search(Object)}
+	 * would return it, if the human played the move that was guessed.
+	 * Otherwise, <code>null</code>.
+	 * @throws IllegalStateException If the background search failed.
+	 */
+	byte[][] finish(byte[][] board) {
+		if (answer == null) {
+			return null;
+		}
+
+		BitBoard guessed = guess;
+		boolean hit = board != null && guessed != null
+				&& guessed.equals(BitBoard.fromArray(board));
+
+		if (!hit) {
+			stopSignal.set(true);
+		}
+
+		try {
+			byte[][] result = answer.get();
+			return hit ? result : null;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(
+					"The background search failed", e.getCause());
+		} finally {
+			answer = null;
+		}
+	}
+
+	/**
+	 * Stops thinking in the background and lets the thread that did so
+	 * end. The ponderer cannot be started again.
+	 */
+	void shutdown() {
+		try {
+			finish(null);
+		} finally {
+			thread.shutdown();
+		}
+	}
+
+}
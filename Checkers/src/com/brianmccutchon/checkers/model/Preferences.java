@@ -28,6 +28,51 @@ public class Preferences implements Serializable {
 	public String modeName;
 	
 	/**
+	 * The name of the AI's search engine. "Alpha-beta", "Lazy SMP", "YBW",
+	 * "Off-heap tree" or "Tree".
+	 * @see Checkers#Checkers(Preferences, CheckersListener)
+	 */
+	public String engineName;
+	
+	/**
+	 * The number of milliseconds that the alpha-beta engine may think about
+	 * each move, or <code>0</code> to always look {@link #treeDepth} moves
+	 * ahead.
+	 */
+	public int moveTime;
+	
+	/**
+	 * The number of threads used by the "Lazy SMP" and "YBW" engines,
+	 * or <code>0</code> to use one for each processor.
+	 */
+	public int threads;
+	
+	/**
+	 * <code>true</code> if the computer should think about its next move
+	 * while a human player thinks about theirs.
+	 */
+	public boolean ponder = true;
+	
+	/**
+	 * The number of megabytes that the search engines may use to remember
+	 * positions. What is remembered is kept from one move to the next.
+	 */
+	public int tableMemory = 64;
+	
+	/**
+	 * The most nodes in a tree built by the "Off-heap tree" engine.
+	 * Each one takes 32 bytes outside the Java heap.
+	 */
+	public int arenaNodes = 1 << 24;
+	
+	/**
+	 * <code>true</code> if the search engines should look up endgames in
+	 * the {@link Tablebase#loadDefault() tablebase}, if there is one.
+	 */
+	public boolean useTablebase = true;
+	
+	/**
+	 * Creates preferences that use the alpha-beta search engine.
 	 * @param treeDepth
 	 * @param p1IsHuman
 	 * @param p2IsHuman
@@ -35,10 +80,23 @@ public class Preferences implements Serializable {
 	 */
 	public Preferences(int treeDepth, boolean p1IsHuman,
 			boolean p2IsHuman, String modeName) {
+		this(treeDepth, p1IsHuman, p2IsHuman, modeName, "Alpha-beta");
+	}
+	
+	/**
+	 * @param treeDepth
+	 * @param p1IsHuman
+	 * @param p2IsHuman
+	 * @param modeName 
+	 * @param engineName
+	 */
+	public Preferences(int treeDepth, boolean p1IsHuman,
+			boolean p2IsHuman, String modeName, String engineName) {
 		this.treeDepth = treeDepth;
 		this.p1IsHuman = p1IsHuman;
 		this.p2IsHuman = p2IsHuman;
 		this.modeName = modeName;
+		this.engineName = engineName;
 	}
 	
 	public static Preferences getPrefsGraphically() {
@@ -0,0 +1,113 @@
+package com.brianmccutchon.checkers.model;
+
+import static com.brianmccutchon.checkers.model.Checkers.*;
+
+import framework.Evaluator;
+
+/**
+ * <p>
+ * Scores the positions at the bottom of a search. A position where the
+ * player to move has a jump is not scored as it stands, since the jump is
+ * forced and the material is about to change; instead, the jumps are
+ * searched, and the replies to them, until a position is reached where
+ * nobody has a jump. Without this, a search would happily give a piece
+ * away on its last move, since it would not see it taken, or sacrifice
+ * pieces to push a loss just past the depth that it looks at.
+ * </p><p>
+ * Only jumps are searched, and every jump takes a piece, so the extra
+ * moves are few and always come to an end. Nothing is stored in a
+ * transposition table. Each thread needs its own object.
+ * </p>
+ * @author Brian McCutchon
+ */
+final class Quiescence {
+
+	/**
+	 * The most jumps in a row there can be,
+	 * since each one takes at least one piece.
+	 */
+	static final int MAX_PLY = 24;
+
+	/** <code>true</code> if the object of the game is to lose. **/
+	private final boolean isSuicideCheckers;
+
+	/** The jumps found at each ply, created when first needed. **/
+	private final long[][] moveBuffers = new long[MAX_PLY][];
+
+	/** Scores the quiet positions. **/
+	Evaluator<BitBoard> evaluator = FeatureEvaluator.DEFAULT;
+
+	/** The number of positions with a jump that have been searched. **/
+	long nodeCount;
+
+	/**
+	 * @param isSuicideCheckers <code>true</code> if the object
+	 * of the game is to lose.
+	 */
+	Quiescence(boolean isSuicideCheckers) {
+		this.isSuicideCheckers = isSuicideCheckers;
+	}
+
+	/**
+	 * Scores a position at the bottom of a search.
+	 * @param b The position. Moves are made on it and undone,
+	 * so it is the same when this method returns.
+	 * @param ply The number of moves made since the root.
+	 * @param alpha The score that the player to move is already assured of.
+	 * @param beta The score that the opponent is already assured of,
+	 * negated.
+	 * @return The score of the position, or a bound on it if it is
+	 * outside the window from <code>alpha</code> to <code>beta</code>.
+	 */
+	int score(BitBoard b, int ply, int alpha, int beta) {
+		return score(b, ply, 0, alpha, beta);
+	}
+
+	/**
+	 * The recursive part of {@link #score(BitBoard, int, int, int)}.
+	 * @param b The position.
+	 * @param ply The number of moves made since the root.
+	 * @param qply The number of jumps made since the bottom of the search.
+	 * @param alpha The score that the player to move is already assured of.
+	 * @param beta The score that the opponent is already assured of,
+	 * negated.
+	 * @return The score of the position, or a bound on it.
+	 */
+	private int score(BitBoard b, int ply, int qply, int alpha, int beta) {
+		if (qply == MAX_PLY || !b.jumpIsPossible()) {
+			if (!b.moveIsPossible()) {
+				return isSuicideCheckers ? WIN - ply : LOSS + ply;
+			}
+			int score = evaluator.evaluate(b);
+			return isSuicideCheckers ? -score : score;
+		}
+
+		nodeCount++;
+
+		if (moveBuffers[qply] == null) {
+			moveBuffers[qply] = new long[BitBoard.MAX_MOVES];
+		}
+		long[] moves = moveBuffers[qply];
+		int count = b.generateMoves(moves);
+		int best = -AlphaBetaSearch.INFINITY;
+
+		for (int i = 0; i < count; i++) {
+			int undo = b.makeMove(moves[i]);
+			int val = -score(b, ply + 1, qply + 1, -beta, -alpha);
+			b.unmakeMove(moves[i], undo);
+
+			if (val > best) {
+				best = val;
+				if (val > alpha) {
+					alpha = val;
+					if (alpha >= beta) {
+						break;
+					}
+				}
+			}
+		}
+
+		return best;
+	}
+
+}
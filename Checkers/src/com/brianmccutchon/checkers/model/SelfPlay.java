@@ -0,0 +1,119 @@
+package com.brianmccutchon.checkers.model;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import framework.DSArrayList;
+
+/**
+ * <p>
+ * Plays games of normal checkers between two copies of the computer and
+ * records the positions, for {@link TexelTuner}.
+ * </p><p>
+ * Each game starts with {@link #RANDOM_PLIES} random moves, so that the
+ * games are different, and then both sides play the moves of a shallow
+ * {@link AlphaBetaSearch}. A game that goes on for {@link #MAX_PLIES} moves
+ * is counted as a draw. Only quiet positions, where the player to move has
+ * no jump, are recorded, since a position in the middle of an exchange
+ * says little about its evaluation. The games are played in parallel.
+ * </p>
+ * @author Brian McCutchon
+ */
+public final class SelfPlay {
+
+	/** The number of random moves at the start of each game. **/
+	static final int RANDOM_PLIES = 6;
+
+	/** The number of moves after which a game is a draw. **/
+	static final int MAX_PLIES = 200;
+
+	/** Searches on each thread, so that each keeps its table. **/
+	private final ThreadLocal<AlphaBetaSearch> searches;
+
+	private SelfPlay(int depth) {
+		searches = ThreadLocal.withInitial(
+				() -> new AlphaBetaSearch(depth, false));
+	}
+
+	/**
+	 * Plays games and records them.
+	 * @param games The number of games to play.
+	 * @param depth The number of moves that each side looks ahead.
+	 * @return The quiet positions of every game and their results.
+	 */
+	public static GameRecords play(int games, int depth) {
+		SelfPlay selfPlay = new SelfPlay(depth);
+		List<Game> played = IntStream.range(0, games).parallel()
+				.mapToObj(g -> selfPlay.playGame())
+				.collect(Collectors.toList());
+
+		int count = played.stream().mapToInt(g -> g.positions.size()).sum();
+		ByteBuffer buf = ByteBuffer.allocate(count * GameRecords.RECORD_SIZE);
+		for (Game game : played) {
+			for (BitBoard b : game.positions) {
+				GameRecords.put(buf, b, game.result);
+			}
+		}
+
+		return new GameRecords(buf);
+	}
+
+	/**
+	 * Plays one game.
+	 * @return The game.
+	 */
+	private Game playGame() {
+		AlphaBetaSearch search = searches.get();
+		ThreadLocalRandom rand = ThreadLocalRandom.current();
+		BitBoard b;
+
+		// Start over if the random moves happen to end the game.
+		do {
+			b = BitBoard.start();
+			for (int ply = 0; ply < RANDOM_PLIES && b.moveIsPossible(); ply++) {
+				DSArrayList<BitBoard> children = b.getChildren();
+				b = children.get(rand.nextInt(children.size()));
+			}
+		} while (!b.moveIsPossible());
+
+		List<BitBoard> positions = new ArrayList<>();
+		byte result = GameRecords.DRAW;
+
+		for (int ply = RANDOM_PLIES; ply < MAX_PLIES; ply++) {
+			if (!b.moveIsPossible()) {
+				result = (b.turn == Checkers.P1_PAWN)
+						? GameRecords.LOSS : GameRecords.WIN;
+				break;
+			}
+
+			if (!b.jumpIsPossible()) {
+				positions.add(b);
+			}
+
+			b = search.bestChild(b);
+		}
+
+		return new Game(positions, result);
+	}
+
+	/** A game that has been played. **/
+	private static final class Game {
+
+		/** The quiet positions of the game. **/
+		final List<BitBoard> positions;
+
+		/** The result for player 1. **/
+		final byte result;
+
+		Game(List<BitBoard> positions, byte result) {
+			this.positions = positions;
+			this.result = result;
+		}
+
+	}
+
+}
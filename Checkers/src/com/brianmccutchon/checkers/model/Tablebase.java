@@ -0,0 +1,399 @@
+package com.brianmccutchon.checkers.model;
+
+import static com.brianmccutchon.checkers.model.BitBoard.*;
+import static com.brianmccutchon.checkers.model.Checkers.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <p>
+ * An endgame database: the result of perfect play from every position
+ * with only a few pieces on the board, made by
+ * {@link TablebaseGenerator}. The search looks positions up here instead
+ * of searching them, so it plays these endgames perfectly and at once.
+ * </p><p>
+ * Positions are stored from the point of view of the player whose turn it
+ * is, as if that player were player 1 (moving up the board). A position
+ * where it is player 2's turn is turned around first, which is the same as
+ * turning the board 180 degrees and swapping the colors. Positions are
+ * grouped into tables by the number of pawns and kings on each side. In a
+ * table, each set of pieces of one kind is numbered by its combination of
+ * squares, and each position has one byte:
+ * </p>
+ * <ul>
+ * <li><code>0</code>: neither player can force a win.</li>
+ * <li><code>d &gt; 0</code>: the player to move wins in <code>d</code>
+ * moves.</li>
+ * <li><code>-(d+1)</code>: the player to move loses in <code>d</code>
+ * moves.</li>
+ * </ul>
+ * <p>
+ * The file starts with <code>"CKTB"</code>, a version number, the most
+ * pieces in any position and the number of tables, followed by each table
+ * as its four piece counts, its length and its values.
+ * </p><p>
+ * A tablebase read from a file is not copied onto the heap. Each table is
+ * mapped into memory with {@link FileChannel#map}, so the operating system
+ * reads in only the parts that are used and shares them between every
+ * program that has the same file open. Opening even a large file is quick.
+ * </p><p>
+ * The database assumes that a player who cannot move loses, so it must not
+ * be used for suicide checkers.
+ * </p>
+ * @author Brian McCutchon
+ */
+public class Tablebase {
+
+	/** Returned by {@link #probe(BitBoard)} for positions not stored here. **/
+	public static final int NOT_FOUND = Integer.MIN_VALUE;
+
+	/** The first four bytes of a tablebase file. **/
+	static final int MAGIC = 0x434B5442; // "CKTB"
+
+	/** The version of the file format. **/
+	static final int VERSION = 1;
+
+	/** The place where the game looks for a tablebase. **/
+	public static final String DEFAULT_LOCATION = "data/tablebase.cktb";
+
+	/** <code>BINOMIAL[n][k]</code> is the number of ways to choose k of n. **/
+	private static final int[][] BINOMIAL = new int[33][33];
+
+	static {
+		for (int n = 0; n <= 32; n++) {
+			BINOMIAL[n][0] = 1;
+			for (int k = 1; k <= n; k++) {
+				BINOMIAL[n][k] = BINOMIAL[n-1][k-1] + BINOMIAL[n-1][k];
+			}
+		}
+	}
+
+	/** The tablebase read by {@link #loadDefault()}. **/
+	private static Tablebase defaultTablebase;
+
+	/** The tables, indexed by {@link #signature(int, int, int, int)}. **/
+	final ByteBuffer[] tables = new ByteBuffer[1 << 16];
+
+	/** The most pieces in any position stored. **/
+	private final int maxPieces;
+
+	/**
+	 * Creates an empty tablebase to be filled in.
+	 * @param maxPieces The most pieces in any position to be stored.
+	 */
+	Tablebase(int maxPieces) {
+		this.maxPieces = maxPieces;
+	}
+
+	/**
+	 * @return The most pieces in any position stored.
+	 */
+	public int getMaxPieces() {
+		return maxPieces;
+	}
+
+	/**
+	 * Looks up a position.
+	 * @param b The position.
+	 * @return The value of the position, as described in {@link Tablebase},
+	 * or {@link #NOT_FOUND}.
+	 */
+	public int probe(BitBoard b) {
+		return (b.turn == P1_PAWN) ? probe(b.p1, b.p2, b.kings)
+				: probe(Integer.reverse(b.p2), Integer.reverse(b.p1),
+						Integer.reverse(b.kings));
+	}
+
+	/**
+	 * Looks up a position where it is player 1's turn.
+	 * @param own Player 1's pieces.
+	 * @param opp Player 2's pieces.
+	 * @param kings The kings of both players.
+	 * @return The value of the position, or {@link #NOT_FOUND}.
+	 */
+	int probe(int own, int opp, int kings) {
+		if (own == 0) {
+			return -1; // no pieces, so no moves
+		}
+
+		ByteBuffer table = tables[signature(own, opp, kings)];
+		if (table == null) {
+			return NOT_FOUND;
+		}
+
+		return table.get(index(own, opp, kings));
+	}
+
+	/**
+	 * Converts a value from the tablebase to a score for the search.
+	 * @param value A value returned by {@link #probe(BitBoard)}.
+	 * @param ply The number of moves made since the root.
+	 * @return The score, as in {@link AlphaBetaSearch}.
+	 */
+	public static int score(int value, int ply) {
+		if (value > 0) {
+			return WIN - ply - value;
+		} else if (value < 0) {
+			return LOSS + ply - value - 1;
+		} else {
+			return 0;
+		}
+	}
+
+	/**
+	 * @param own The pieces of the player whose turn it is.
+	 * @param opp The pieces of the other player.
+	 * @param kings The kings of both players.
+	 * @return The number of the table that holds the position.
+	 */
+	static int signature(int own, int opp, int kings) {
+		return signature(Integer.bitCount(own & ~kings),
+				Integer.bitCount(own & kings),
+				Integer.bitCount(opp & ~kings),
+				Integer.bitCount(opp & kings));
+	}
+
+	/**
+	 * @return The number of the table of positions
+	 * with these numbers of pieces.
+	 */
+	static int signature(int ownPawns, int ownKings,
+			int oppPawns, int oppKings) {
+		return ownPawns | ownKings << 4 | oppPawns << 8 | oppKings << 12;
+	}
+
+	/**
+	 * @param signature The number of a table.
+	 * @return The number of positions in the table.
+	 * @throws IllegalArgumentException If the table would be too large.
+	 */
+	static int size(int signature) {
+		long size = 1;
+		for (int i = 0; i < 4; i++) {
+			size *= BINOMIAL[32][(signature >>> (4*i)) & 0xF];
+		}
+		if (size > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Too many pieces: " + signature);
+		}
+		return (int) size;
+	}
+
+	/**
+	 * Numbers a position within its table.
+	 * @param own The pieces of the player whose turn it is.
+	 * @param opp The pieces of the other player.
+	 * @param kings The kings of both players.
+	 * @return The index of the position.
+	 */
+	static int index(int own, int opp, int kings) {
+		int index = rank(own & ~kings);
+		index = index * BINOMIAL[32][Integer.bitCount(own & kings)]
+				+ rank(own & kings);
+		index = index * BINOMIAL[32][Integer.bitCount(opp & ~kings)]
+				+ rank(opp & ~kings);
+		index = index * BINOMIAL[32][Integer.bitCount(opp & kings)]
+				+ rank(opp & kings);
+		return index;
+	}
+
+	/**
+	 * Undoes {@link #index(int, int, int)}.
+	 * @param signature The table that the position is in.
+	 * @param index The index of the position.
+	 * @return The pieces, in the form <code>{own, opp, kings}</code>,
+	 * or <code>null</code> if no legal position has that index: if two
+	 * pieces share a square or a pawn is on the row where it would have
+	 * been crowned.
+	 */
+	static int[] unindex(int signature, int index) {
+		int[] sets = new int[4];
+
+		for (int i = 3; i >= 0; i--) {
+			int k = (signature >>> (4*i)) & 0xF;
+			int combinations = BINOMIAL[32][k];
+			sets[i] = unrank(index % combinations, k);
+			index /= combinations;
+		}
+
+		int ownPawns = sets[0], ownKings = sets[1];
+		int oppPawns = sets[2], oppKings = sets[3];
+
+		if (Integer.bitCount(ownPawns | ownKings | oppPawns | oppKings)
+				!= Integer.bitCount(ownPawns) + Integer.bitCount(ownKings)
+				+ Integer.bitCount(oppPawns) + Integer.bitCount(oppKings)
+				|| (ownPawns & TOP_ROW) != 0 || (oppPawns & BOTTOM_ROW) != 0) {
+			return null;
+		}
+
+		return new int[]{ ownPawns | ownKings, oppPawns | oppKings,
+				ownKings | oppKings };
+	}
+
+	/**
+	 * @param squares A set of squares.
+	 * @return The number of the set among all sets of the same
+	 * size, in co-lexicographic order.
+	 */
+	private static int rank(int squares) {
+		int rank = 0;
+		for (int k = 1; squares != 0; k++) {
+			rank += BINOMIAL[Integer.numberOfTrailingZeros(squares)][k];
+			squares &= squares - 1;
+		}
+		return rank;
+	}
+
+	/**
+	 * Undoes {@link #rank(int)}.
+	 * @param rank The number of a set.
+	 * @param k The size of the set.
+	 * @return The set.
+	 */
+	private static int unrank(int rank, int k) {
+		int squares = 0;
+		int s = 32;
+		for (; k > 0; k--) {
+			do {
+				s--;
+			} while (BINOMIAL[s][k] > rank);
+			squares |= 1 << s;
+			rank -= BINOMIAL[s][k];
+		}
+		return squares;
+	}
+
+	/**
+	 * Writes the tablebase in the form described in {@link Tablebase}.
+	 * @param file The file to write.
+	 * @throws IOException If the file cannot be written.
+	 */
+	public void save(File file) throws IOException {
+		int count = 0;
+		for (ByteBuffer table : tables) {
+			if (table != null) {
+				count++;
+			}
+		}
+
+		try (FileChannel out = FileChannel.open(file.toPath(),
+				StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer header = ByteBuffer.allocate(16);
+			header.putInt(MAGIC).putInt(VERSION).putInt(maxPieces).putInt(count);
+			header.flip();
+			writeFully(out, header);
+
+			for (int sig = 0; sig < tables.length; sig++) {
+				if (tables[sig] != null) {
+					header = ByteBuffer.allocate(8);
+					for (int i = 0; i < 4; i++) {
+						header.put((byte) ((sig >>> (4*i)) & 0xF));
+					}
+					header.putInt(tables[sig].capacity());
+					header.flip();
+					writeFully(out, header);
+
+					ByteBuffer table = tables[sig].duplicate();
+					table.clear();
+					writeFully(out, table);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reads a tablebase written by {@link #save(File)}. The tables are
+	 * mapped into memory rather than read, and stay valid after the file
+	 * is closed.
+	 * @param file The file to read.
+	 * @return The tablebase.
+	 * @throws IOException If the file cannot be read or is not a tablebase.
+	 */
+	public static Tablebase load(File file) throws IOException {
+		try (FileChannel in = FileChannel.open(file.toPath(),
+				StandardOpenOption.READ)) {
+			ByteBuffer header = readFully(in, 0, 16);
+			if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+				throw new IOException(file + " is not a tablebase");
+			}
+
+			Tablebase tb = new Tablebase(header.getInt());
+			int count = header.getInt();
+			long position = 16;
+
+			for (int t = 0; t < count; t++) {
+				header = readFully(in, position, 8);
+				int sig = signature(header.get(), header.get(),
+						header.get(), header.get());
+				int length = header.getInt();
+				position += 8;
+
+				if (length != size(sig) || position + length > in.size()) {
+					throw new IOException("Wrong length for table " + sig);
+				}
+
+				tb.tables[sig] = in.map(FileChannel.MapMode.READ_ONLY,
+						position, length);
+				position += length;
+			}
+
+			return tb;
+		}
+	}
+
+	/**
+	 * Writes all of a buffer to a file.
+	 * @param out The file.
+	 * @param buf The buffer, which is written from its position
+	 * to its limit.
+	 * @throws IOException If the file cannot be written.
+	 */
+	private static void writeFully(FileChannel out, ByteBuffer buf)
+			throws IOException {
+		while (buf.hasRemaining()) {
+			out.write(buf);
+		}
+	}
+
+	/**
+	 * Reads part of a file.
+	 * @param in The file.
+	 * @param position The place to start reading.
+	 * @param length The number of bytes to read.
+	 * @return The bytes read, ready to get from.
+	 * @throws IOException If the file cannot be read or is too short.
+	 */
+	private static ByteBuffer readFully(FileChannel in, long position,
+			int length) throws IOException {
+		ByteBuffer buf = ByteBuffer.allocate(length);
+		while (buf.hasRemaining()) {
+			if (in.read(buf, position + buf.position()) < 0) {
+				throw new IOException("Unexpected end of tablebase");
+			}
+		}
+		buf.flip();
+		return buf;
+	}
+
+	/**
+	 * Reads the tablebase at {@link #DEFAULT_LOCATION}, if there is one.
+	 * It is only read once, and then shared by every game.
+	 * @return The tablebase, or <code>null</code> if there is none.
+	 */
+	public static synchronized Tablebase loadDefault() {
+		File file = new File(DEFAULT_LOCATION);
+		if (defaultTablebase == null && file.exists()) {
+			try {
+				defaultTablebase = load(file);
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+		return defaultTablebase;
+	}
+
+}
@@ -0,0 +1,209 @@
+package com.brianmccutchon.checkers.model;
+
+import static com.brianmccutchon.checkers.model.Checkers.*;
+
+import java.nio.ByteBuffer;
+import java.util.stream.IntStream;
+
+/**
+ * <p>
+ * Builds a {@link Tablebase} by retrograde analysis, one distance at a time.
+ * </p><p>
+ * Tables are built from the fewest pieces up, and with the same number of
+ * pieces, from the fewest pawns up. A jump removes a piece and a coronation
+ * turns a pawn into a king, so every move leads either to a table that is
+ * already finished or to the same table or its mirror image, with the
+ * numbers of pieces of the two players swapped. Those two are built
+ * together, in passes:
+ * </p>
+ * <ul>
+ * <li>Pass 0 finds the positions where the player to move cannot move,
+ * which are lost in 0 moves.</li>
+ * <li>Pass <code>n</code> finds the positions with a move to a position
+ * lost in <code>n-1</code>, which are won in <code>n</code>, and the
+ * positions where every move leads to a position won in at most
+ * <code>n-1</code> moves, one of them in exactly <code>n-1</code>, which
+ * are lost in <code>n</code>.</li>
+ * </ul>
+ * <p>
+ * Once no new positions are found and no finished table can supply any
+ * more, the positions that are left are draws.
+ * </p>
+ * @author Brian McCutchon
+ */
+public final class TablebaseGenerator {
+
+	/** The longest win that can be stored in a byte. **/
+	static final int MAX_DISTANCE = Byte.MAX_VALUE - 1;
+
+	/** The tablebase being built. **/
+	private final Tablebase tb;
+
+	/** The longest win or loss found in the finished tables. **/
+	private int longest;
+
+	/**
+	 * The moves of the position being resolved on each thread, so that
+	 * a buffer is not made for each position in every pass.
+	 */
+	private final ThreadLocal<long[]> moveBuffers =
+			ThreadLocal.withInitial(() -> new long[BitBoard.MAX_MOVES]);
+
+	private TablebaseGenerator(int maxPieces) {
+		tb = new Tablebase(maxPieces);
+	}
+
+	/**
+	 * Builds a tablebase.
+	 * @param maxPieces The most pieces in any position to be stored.
+	 * Each extra piece makes the tablebase about 30 times larger.
+	 * @return The tablebase.
+	 */
+	public static Tablebase generate(int maxPieces) {
+		TablebaseGenerator gen = new TablebaseGenerator(maxPieces);
+
+		for (int pieces = 2; pieces <= maxPieces; pieces++) {
+			for (int pawns = 0; pawns <= pieces; pawns++) {
+				for (int ownPawns = 0; ownPawns <= pawns; ownPawns++) {
+					int oppPawns = pawns - ownPawns;
+					for (int ownKings = 0; ownKings <= pieces - pawns; ownKings++) {
+						int oppKings = pieces - pawns - ownKings;
+						if (ownPawns + ownKings == 0 || oppPawns + oppKings == 0
+								|| ownPawns > 12 || oppPawns > 12) {
+							continue;
+						}
+
+						int sig = Tablebase.signature(ownPawns, ownKings,
+								oppPawns, oppKings);
+						int mirror = Tablebase.signature(oppPawns, oppKings,
+								ownPawns, ownKings);
+						if (gen.tb.tables[sig] == null) {
+							gen.build(sig, mirror);
+						}
+					}
+				}
+			}
+		}
+
+		return gen.tb;
+	}
+
+	/**
+	 * Builds a table and its mirror image.
+	 * @param sig The number of the table.
+	 * @param mirror The number of the mirror image, which may be the same.
+	 */
+	private void build(int sig, int mirror) {
+		int[] sigs = (sig == mirror) ? new int[]{ sig } : new int[]{ sig, mirror };
+
+		for (int s : sigs) {
+			tb.tables[s] = ByteBuffer.allocate(Tablebase.size(s));
+		}
+
+		for (int n = 0; n <= MAX_DISTANCE; n++) {
+			final int pass = n;
+			long found = 0;
+
+			for (int s : sigs) {
+				ByteBuffer table = tb.tables[s];
+				found += IntStream.range(0, table.capacity()).parallel()
+						.filter(i -> table.get(i) == 0 && resolve(s, i, pass))
+						.count();
+			}
+
+			if (found == 0 && n > longest + 1) {
+				break; // Nothing more can be found.
+			}
+
+			if (found != 0) {
+				longest = Math.max(longest, n);
+			}
+		}
+	}
+
+	/**
+	 * Tries to find the value of a position in pass <code>n</code>.
+	 * @param sig The table that the position is in.
+	 * @param index The index of the position.
+	 * @param n The number of the pass.
+	 * @return <code>true</code> if the value was found and stored.
+	 */
+	private boolean resolve(int sig, int index, int n) {
+		int[] pieces = Tablebase.unindex(sig, index);
+		if (pieces == null) {
+			return false;
+		}
+
+		BitBoard b = new BitBoard(pieces[0], pieces[1], pieces[2], P1_PAWN);
+		long[] moves = moveBuffers.get();
+		int count = b.generateMoves(moves);
+		byte value = 0;
+
+		if (n == 0) {
+			if (count == 0) {
+				value = -1; // lost in 0
+			}
+		} else {
+			boolean allWon = true;
+			int longestWin = 0;
+
+			for (int i = 0; i < count && value == 0; i++) {
+				int undo = b.makeMove(moves[i]);
+				// After the move it is player 2's turn.
+				int v = tb.probe(Integer.reverse(b.p2), Integer.reverse(b.p1),
+						Integer.reverse(b.kings));
+				b.unmakeMove(moves[i], undo);
+
+				if (v < 0 && -v - 1 == n - 1) {
+					value = (byte) n; // a move to a lost position
+				} else if (v > 0) {
+					longestWin = Math.max(longestWin, v);
+				} else {
+					allWon = false;
+				}
+			}
+
+			if (value == 0 && allWon && longestWin == n - 1) {
+				value = (byte) (-n - 1); // every move loses
+			}
+		}
+
+		if (value != 0) {
+			tb.tables[sig].put(index, value);
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Counts the positions in a tablebase by result,
+	 * for {@link com.brianmccutchon.checkers.cli.TablebaseCommand}.
+	 * @param tb The tablebase.
+	 * @return The numbers of wins, losses and draws for the player to move.
+	 */
+	public static long[] count(Tablebase tb) {
+		long[] counts = new long[3];
+
+		for (int sig = 0; sig < tb.tables.length; sig++) {
+			ByteBuffer table = tb.tables[sig];
+			if (table == null) {
+				continue;
+			}
+
+			for (int i = 0; i < table.capacity(); i++) {
+				byte value = table.get(i);
+				if (value > 0) {
+					counts[0]++;
+				} else if (value < 0) {
+					counts[1]++;
+				} else if (Tablebase.unindex(sig, i) != null) {
+					counts[2]++;
+				}
+			}
+		}
+
+		return counts;
+	}
+
+}
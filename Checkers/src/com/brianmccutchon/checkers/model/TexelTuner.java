@@ -0,0 +1,175 @@
+package com.brianmccutchon.checkers.model;
+
+import java.io.PrintStream;
+import java.util.stream.IntStream;
+
+/**
+ * <p>
+ * Fits the weights of a {@link FeatureEvaluator} to {@link GameRecords}
+ * with the Texel method. A score is turned into an expected result between
+ * <code>0</code> (a loss) and <code>1</code> (a win) by a logistic curve,
+ * <code>1 / (1 + e<sup>-k&middot;score</sup>)</code>, and the weights are
+ * chosen to minimize the mean squared difference between the expected
+ * results and the real ones over all the positions.
+ * </p><p>
+ * First, <code>k</code> is chosen to fit the starting weights best. Then
+ * each weight in turn is moved up or down by a step, and the move is kept if
+ * it lowers the error. When a pass over the weights changes nothing, the
+ * step is halved, until a pass with a step of one changes nothing.
+ * </p><p>
+ * The {@link FeatureEvaluator#features(BitBoard, int[]) features} of every
+ * position are counted once, when the tuner is created, and kept in one
+ * <code>short</code> array, so that computing the error is only a matter of
+ * multiplying and adding. The error is computed in parallel, in batches of
+ * {@link #BATCH_SIZE} positions.
+ * </p>
+ * @author Brian McCutchon
+ */
+public final class TexelTuner {
+
+	/** The number of positions that each task computes the error for. **/
+	static final int BATCH_SIZE = 1 << 14;
+
+	/** The step with which the weights are first moved. **/
+	static final int FIRST_STEP = 8;
+
+	/** The number of features. **/
+	private static final int FEATURES = FeatureEvaluator.FEATURES;
+
+	/** The feature counts of every position, one after another. **/
+	private final short[] features;
+
+	/** The result of the game of each position, from 0 to 1. **/
+	private final float[] results;
+
+	/** The number of positions. **/
+	private final int count;
+
+	/** The steepness of the logistic curve. **/
+	private double k;
+
+	/**
+	 * Counts the features of the positions to tune with.
+	 * @param records The positions and their results.
+	 */
+	public TexelTuner(GameRecords records) {
+		count = records.size();
+		features = new short[count * FEATURES];
+		results = new float[count];
+
+		IntStream.range(0, count).parallel().forEach(i -> {
+			int[] counts = new int[FEATURES];
+			FeatureEvaluator.features(records.position(i), counts);
+			for (int f = 0; f < FEATURES; f++) {
+				features[i * FEATURES + f] = (short) counts[f];
+			}
+			results[i] = records.result(i) / 2f;
+		});
+	}
+
+	/**
+	 * Tunes weights.
+	 * @param weights The weights to start from, which are changed.
+	 * @param log Where to report progress, or <code>null</code>.
+	 * @return The error of the tuned weights.
+	 */
+	public double tune(int[] weights, PrintStream log) {
+		k = fitK(weights);
+		double best = error(weights);
+		if (log != null) {
+			log.printf("k = %.4f, error = %.6f%n", k, best);
+		}
+
+		for (int step = FIRST_STEP; step > 0; step /= 2) {
+			boolean improved = true;
+
+			while (improved) {
+				improved = false;
+
+				for (int f = 0; f < FEATURES; f++) {
+					for (int sign : new int[] { 1, -1 }) {
+						weights[f] += sign * step;
+						double error = error(weights);
+
+						if (error < best) {
+							best = error;
+							improved = true;
+							break;
+						}
+						weights[f] -= sign * step;
+					}
+				}
+
+				if (log != null) {
+					log.printf("step %d, error = %.6f%n", step, best);
+				}
+			}
+		}
+
+		return best;
+	}
+
+	/**
+	 * Finds the steepness of the logistic curve that fits some weights best,
+	 * by ternary search, since the error has a single minimum in
+	 * <code>k</code>.
+	 * @param weights The weights.
+	 * @return The steepness.
+	 */
+	double fitK(int[] weights) {
+		double low = 0.01, high = 10;
+		for (int i = 0; i < 50; i++) {
+			double a = low + (high - low) / 3, b = high - (high - low) / 3;
+			if (error(weights, a) < error(weights, b)) {
+				high = b;
+			} else {
+				low = a;
+			}
+		}
+		return (low + high) / 2;
+	}
+
+	/**
+	 * @param weights The weight of each feature.
+	 * @return The mean squared error of the weights, with the steepness
+	 * found by the last {@link #tune(int[], PrintStream)}.
+	 */
+	public double error(int[] weights) {
+		return error(weights, k);
+	}
+
+	/**
+	 * @param weights The weight of each feature.
+	 * @param k The steepness of the logistic curve.
+	 * @return The mean squared error of the weights.
+	 */
+	double error(int[] weights, double k) {
+		int batches = (count + BATCH_SIZE - 1) / BATCH_SIZE;
+		double scale = k / FeatureEvaluator.SCALE;
+
+		double sum = IntStream.range(0, batches).parallel().mapToDouble(batch -> {
+			int end = Math.min(count, (batch + 1) * BATCH_SIZE);
+			double batchSum = 0;
+
+			for (int i = batch * BATCH_SIZE; i < end; i++) {
+				int score = 0;
+				for (int f = 0, at = i * FEATURES; f < FEATURES; f++, at++) {
+					score += weights[f] * features[at];
+				}
+				double expected = 1 / (1 + Math.exp(-scale * score));
+				double diff = results[i] - expected;
+				batchSum += diff * diff;
+			}
+
+			return batchSum;
+		}).sum();
+
+		return sum / count;
+	}
+
+	/** @return The number of positions. **/
+	public int size() {
+		return count;
+	}
+
+}
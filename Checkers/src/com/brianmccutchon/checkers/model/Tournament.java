@@ -0,0 +1,297 @@
+package com.brianmccutchon.checkers.model;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import framework.SearchEngine;
+
+/**
+ * <p>
+ * Plays many games between two engines, without a window, to find out
+ * whether a change to the search or the evaluation makes the computer play
+ * better.
+ * </p><p>
+ * Every game starts from one of a list of opening positions, and each
+ * opening is played twice in a row, with each engine moving first once, so
+ * that neither engine is favored by the openings. A game that reaches
+ * {@link #MAX_PLIES} moves, or goes {@link #QUIET_PLIES} moves without a
+ * capture or a pawn move, is adjudicated a draw, since by then the kings are
+ * usually only chasing each other.
+ * </p><p>
+ * The games are played at the same time on a fixed number of threads, one
+ * game per thread. Each thread has its own copy of each engine, made by the
+ * suppliers given to the constructor, so the engines need not be safe to
+ * share; an engine that uses threads of its own should be given only one.
+ * Every engine is {@link SearchEngine#shutdown() shut down} when the
+ * tournament ends.
+ * </p>
+ * @author Brian McCutchon
+ */
+public final class Tournament {
+
+	/** The number of moves after which a game is a draw. **/
+	public static final int MAX_PLIES = 300;
+
+	/**
+	 * The number of moves without a capture or a pawn
+	 * move after which a game is a draw.
+	 */
+	public static final int QUIET_PLIES = 80;
+
+	/** The number of games between reports of the score so far. **/
+	static final int REPORT_INTERVAL = 100;
+
+	/** Makes the engine being tested. **/
+	private final Supplier<SearchEngine<byte[][]>> engineA;
+
+	/** Makes the engine that it is compared to. **/
+	private final Supplier<SearchEngine<byte[][]>> engineB;
+
+	/** <code>true</code> if the object of the game is to lose. **/
+	private final boolean isSuicideCheckers;
+
+	/**
+	 * @param engineA Makes the engine being tested.
+	 * @param engineB Makes the engine that it is compared to.
+	 * @param isSuicideCheckers <code>true</code> if the object
+	 * of the game is to lose.
+	 */
+	public Tournament(Supplier<SearchEngine<byte[][]>> engineA,
+			Supplier<SearchEngine<byte[][]>> engineB,
+			boolean isSuicideCheckers) {
+		this.engineA = engineA;
+		this.engineB = engineB;
+		this.isSuicideCheckers = isSuicideCheckers;
+	}
+
+	/**
+	 * Makes engines in the way that the game does.
+	 * @param prefs The settings that name the engine and how far it looks
+	 * ahead. An engine that uses threads should be given only one.
+	 * @param evaluator Scores the positions at the bottom of the search.
+	 * @return Something that makes a new engine each time it is called.
+	 * @throws IllegalArgumentException If the settings do not name a
+	 * search engine, such as the one that builds the whole game tree,
+	 * which cannot be used here.
+	 */
+	public static Supplier<SearchEngine<byte[][]>> engine(Preferences prefs,
+			FeatureEvaluator evaluator) {
+		if (!Checkers.isSearchEngine(prefs.engineName)) {
+			throw new IllegalArgumentException(
+					"Unknown engine: " + prefs.engineName);
+		}
+		boolean isSuicideCheckers = "Suicide".equals(prefs.modeName);
+		return () -> Checkers.createSearchEngine(
+				prefs, isSuicideCheckers, evaluator);
+	}
+
+	/**
+	 * Finds every position that can be reached in the first few moves.
+	 * @param start The position to start from.
+	 * @param plies The number of moves.
+	 * @return The positions, without repeats, in the order
+	 * in which they were found.
+	 */
+	public static List<BitBoard> openings(BitBoard start, int plies) {
+		Set<BitBoard> level = new LinkedHashSet<>();
+		level.add(start);
+
+		for (int ply = 0; ply < plies; ply++) {
+			Set<BitBoard> next = new LinkedHashSet<>();
+			for (BitBoard b : level) {
+				for (BitBoard child : b.getChildren()) {
+					next.add(child);
+				}
+			}
+			level = next;
+		}
+
+		return new ArrayList<>(level);
+	}
+
+	/**
+	 * Plays the tournament. Game <code>2i</code> and game <code>2i+1</code>
+	 * both start from opening <code>i</code>, going back to the first
+	 * opening after the last, and engine A moves first in the even games.
+	 * @param openings The positions to start games from.
+	 * @param games The number of games to play.
+	 * @param threads The number of games to play at once.
+	 * @param log Where to report the score as the games finish,
+	 * or <code>null</code>.
+	 * @return The result, from the point of view of engine A.
+	 * @throws InterruptedException If the thread is interrupted
+	 * while waiting for the games.
+	 */
+	public Result play(List<BitBoard> openings, int games, int threads,
+			PrintStream log) throws InterruptedException {
+		List<SearchEngine<byte[][]>> engines = new ArrayList<>();
+		ThreadLocal<SearchEngine<byte[][]>> a =
+				ThreadLocal.withInitial(() -> made(engineA, engines));
+		ThreadLocal<SearchEngine<byte[][]>> b =
+				ThreadLocal.withInitial(() -> made(engineB, engines));
+		// The losses, draws and wins of engine A.
+		int[] counts = new int[3];
+
+		ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+			Thread t = new Thread(r, "Tournament");
+			t.setDaemon(true);
+			return t;
+		});
+
+		try {
+			List<Future<?>> played = new ArrayList<>(games);
+			for (int g = 0; g < games; g++) {
+				BitBoard opening = openings.get(g / 2 % openings.size());
+				boolean aMovesFirst = (g % 2 == 0);
+
+				played.add(pool.submit(() -> {
+					int result = aMovesFirst
+							? playGame(opening, a.get(), b.get())
+							: -playGame(opening, b.get(), a.get());
+
+					synchronized (counts) {
+						counts[result + 1]++;
+						Result sofar = new Result(counts[2], counts[1], counts[0]);
+						if (log != null && sofar.games() % REPORT_INTERVAL == 0) {
+							log.println(sofar.games() + " games: " + sofar);
+						}
+					}
+				}));
+			}
+
+			for (Future<?> game : played) {
+				game.get();
+			}
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("An engine failed", e.getCause());
+		} finally {
+			pool.shutdownNow();
+			synchronized (engines) {
+				engines.forEach(SearchEngine::shutdown);
+			}
+		}
+
+		return new Result(counts[2], counts[1], counts[0]);
+	}
+
+	/**
+	 * Makes an engine and remembers it, so that it can be shut down.
+	 * @param supplier Makes the engine.
+	 * @param engines The engines made so far.
+	 * @return The engine.
+	 */
+	private static SearchEngine<byte[][]> made(
+			Supplier<SearchEngine<byte[][]>> supplier,
+			List<SearchEngine<byte[][]>> engines) {
+		SearchEngine<byte[][]> engine = supplier.get();
+		synchronized (engines) {
+			engines.add(engine);
+		}
+		return engine;
+	}
+
+	/**
+	 * Plays one game.
+	 * @param opening The position to start from.
+	 * @param first The engine that moves first.
+	 * @param second The other engine.
+	 * @return <code>1</code> if the first engine wins, <code>-1</code>
+	 * if it loses and <code>0</code> for a draw.
+	 */
+	int playGame(BitBoard opening, SearchEngine<byte[][]> first,
+			SearchEngine<byte[][]> second) {
+		BitBoard b = opening;
+		int quiet = 0;
+
+		for (int ply = 0; ply < MAX_PLIES && quiet < QUIET_PLIES; ply++) {
+			if (!b.moveIsPossible()) {
+				// The player to move has lost, or won in suicide checkers.
+				boolean firstToMove = (ply % 2 == 0);
+				return (firstToMove ^ isSuicideCheckers) ? -1 : 1;
+			}
+
+			SearchEngine<byte[][]> engine = (ply % 2 == 0) ? first : second;
+			BitBoard next = BitBoard.fromArray(engine.search(b.toArray()));
+
+			boolean captured = Integer.bitCount(next.p1 | next.p2)
+					< Integer.bitCount(b.p1 | b.p2);
+			boolean pawnMoved = (next.p1 & ~next.kings) != (b.p1 & ~b.kings)
+					|| (next.p2 & ~next.kings) != (b.p2 & ~b.kings);
+			quiet = (captured || pawnMoved) ? 0 : quiet + 1;
+			b = next;
+		}
+
+		return 0;
+	}
+
+	/** The wins, draws and losses of one engine against another. **/
+	public static final class Result {
+
+		/** The number of games that the engine won, drew and lost. **/
+		public final int wins, draws, losses;
+
+		Result(int wins, int draws, int losses) {
+			this.wins = wins;
+			this.draws = draws;
+			this.losses = losses;
+		}
+
+		/** @return The number of games played. **/
+		public int games() {
+			return wins + draws + losses;
+		}
+
+		/** @return The points scored per game, from 0 to 1. **/
+		public double score() {
+			return (wins + draws / 2.0) / games();
+		}
+
+		/**
+		 * @return The difference in Elo rating between the engines that
+		 * would give the {@link #score()}, which is infinite if one of
+		 * them won every game.
+		 */
+		public double elo() {
+			return elo(score());
+		}
+
+		/**
+		 * @return The distance from {@link #elo()} to either end of the 95%
+		 * confidence interval of the difference in rating, found from the
+		 * spread of the results of the games. It is not a number if one
+		 * of the engines won every game.
+		 */
+		public double eloError() {
+			double s = score(), n = games();
+			double variance = (wins * (1 - s) * (1 - s)
+					+ draws * (0.5 - s) * (0.5 - s) + losses * s * s) / n;
+			double margin = 1.96 * Math.sqrt(variance / n);
+			return (elo(Math.min(s + margin, 1))
+					- elo(Math.max(s - margin, 0))) / 2;
+		}
+
+		/**
+		 * @param score A score per game.
+		 * @return The difference in rating that gives the score.
+		 */
+		private static double elo(double score) {
+			return -400 * Math.log10(1 / score - 1);
+		}
+
+		@Override
+		public String toString() {
+			return String.format("+%d =%d -%d, Elo %+.1f +/- %.1f",
+					wins, draws, losses, elo(), eloError());
+		}
+
+	}
+
+}
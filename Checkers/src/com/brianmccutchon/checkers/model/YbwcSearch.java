@@ -0,0 +1,666 @@
+package com.brianmccutchon.checkers.model;
+
+import static com.brianmccutchon.checkers.model.AlphaBetaSearch.*;
+import static com.brianmccutchon.checkers.model.Checkers.*;
+import static framework.TranspositionTable.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import framework.Evaluator;
+import framework.SearchEngine;
+import framework.TranspositionTable;
+
+/**
+ * <p>
+ * Chooses the computer's move with an alpha-beta search that is split
+ * between threads using the "Young Brothers Wait" rule: the first move
+ * from a board is always searched alone, and only then are its younger
+ * brothers searched in parallel. By the time they start, the first move
+ * has usually given a bound that lets them be pruned, so the threads
+ * waste little time on boards that a single thread would have skipped.
+ * </p><p>
+ * The brothers are searched as {@link RecursiveTask}s on a
+ * {@link ForkJoinPool}, so idle threads steal work from busy ones. Boards
+ * with fewer than {@link #MIN_SPLIT_DEPTH} moves left to look at are
+ * searched serially, since they finish faster than a task can be handed
+ * to another thread. If one of the brothers finds a move that the
+ * opponent will not allow, the others are told to stop.
+ * </p><p>
+ * Like {@link AlphaBetaSearch}, the search is iterative, can be given a
+ * time limit, plays out jumps at the bottom with a {@link Quiescence}
+ * search, and remembers results in a {@link TranspositionTable},
+ * which here is shared by all threads.
+ * </p>
+ * @author Brian McCutchon
+ */
+public class YbwcSearch implements SearchEngine<byte[][]> {
+
+	/** The fewest moves left to look at for the brothers to be split. **/
+	static final int MIN_SPLIT_DEPTH = 3;
+
+	/** How many boards a task examines between checks of the clock. **/
+	private static final int CLOCK_CHECK_INTERVAL = 1024;
+
+	/** The number of entries in the table. **/
+	private static final int TABLE_SIZE = 1 << 22;
+
+	/** The number of moves to look ahead. **/
+	private final int depth;
+
+	/** <code>true</code> if the object of the game is to lose. **/
+	private final boolean isSuicideCheckers;
+
+	/** Remembers the results of searches. Shared by all threads. **/
+	private final TranspositionTable table;
+
+	/** Runs the tasks. **/
+	private final ForkJoinPool pool;
+
+	/** The number of boards examined by the last search. **/
+	private final LongAdder nodeCount = new LongAdder();
+
+	/**
+	 * Set when the current iteration runs out of time
+	 * or is stopped by {@link #stopSignal}.
+	 */
+	private final AtomicBoolean stopped = new AtomicBoolean();
+
+	/** Set by another thread to end the current search early. **/
+	private volatile AtomicBoolean stopSignal = new AtomicBoolean();
+
+	/**
+	 * The number of milliseconds to spend on each move,
+	 * or <code>0</code> to search to {@link #depth}.
+	 */
+	private long timeLimit;
+
+	/** Endgame positions to look up, or <code>null</code>. **/
+	private Tablebase tablebase;
+
+	/** Scores the boards at the bottom of the search. **/
+	private Evaluator<BitBoard> evaluator = FeatureEvaluator.DEFAULT;
+
+	/** The value of {@link System#nanoTime()} at which to stop searching. **/
+	private volatile long deadline;
+
+	/** The depth of the last iteration that finished. **/
+	private volatile int completedDepth;
+
+	/** The buffers of each thread that runs tasks. **/
+	private final ThreadLocal<Worker> workers;
+
+	/**
+	 * @param depth The number of moves to look ahead.
+	 * @param isSuicideCheckers <code>true</code> if the object
+	 * of the game is to lose.
+	 * @param threads The number of threads to search with.
+	 */
+	public YbwcSearch(int depth, boolean isSuicideCheckers, int threads) {
+		this(depth, isSuicideCheckers, threads,
+				new TranspositionTable(TABLE_SIZE));
+	}
+
+	/**
+	 * @param depth The number of moves to look ahead.
+	 * @param isSuicideCheckers <code>true</code> if the object
+	 * of the game is to lose.
+	 * @param threads The number of threads to search with.
+	 * @param table The table in which to remember results.
+	 */
+	public YbwcSearch(int depth, boolean isSuicideCheckers, int threads,
+			TranspositionTable table) {
+		this.depth = depth;
+		this.isSuicideCheckers = isSuicideCheckers;
+		this.table = table;
+		pool = new ForkJoinPool(Math.max(threads, 1));
+		workers = ThreadLocal.withInitial(() -> new Worker(isSuicideCheckers));
+	}
+
+	@Override
+	public byte[][] search(byte[][] board) {
+		return bestChild(BitBoard.fromArray(board)).toArray();
+	}
+
+	@Override
+	public byte[][] search(byte[][] board, AtomicBoolean stopSignal) {
+		return bestChild(BitBoard.fromArray(board), stopSignal).toArray();
+	}
+
+	/**
+	 * Chooses a move for the player whose turn it is. If several moves
+	 * are equally good, one of them is chosen at random.
+	 * @param root The current position.
+	 * @return The position after the chosen move.
+	 * @throws IllegalStateException If there are no legal moves.
+	 */
+	public BitBoard bestChild(BitBoard root) {
+		return bestChild(root, new AtomicBoolean());
+	}
+
+	/**
+	 * Like {@link #bestChild(BitBoard)}, but can be stopped early by another
+	 * thread. If it is stopped before it has finished looking one move
+	 * ahead, the move returned is arbitrary.
+	 * @param root The current position.
+	 * @param stopSignal Set by another thread to stop the search.
+	 * @return The position after the chosen move.
+	 * @throws IllegalStateException If there are no legal moves.
+	 */
+	public BitBoard bestChild(BitBoard root, AtomicBoolean stopSignal) {
+		nodeCount.reset();
+		completedDepth = 0;
+		stopped.set(false);
+		this.stopSignal = stopSignal;
+
+		long[] buffer = new long[BitBoard.MAX_MOVES];
+		long[] moves = Arrays.copyOf(buffer, root.generateMoves(buffer));
+
+		if (moves.length == 0) {
+			throw new IllegalStateException("No legal moves");
+		}
+
+		// If there's only one move, take it.
+		if (moves.length == 1) {
+			return root.play(moves[0]);
+		}
+
+		// Shuffle the moves so that equally good ones are chosen at random.
+		Random rand = ThreadLocalRandom.current();
+		for (int i = moves.length - 1; i > 0; i--) {
+			int j = rand.nextInt(i + 1);
+			long tmp = moves[i];
+			moves[i] = moves[j];
+			moves[j] = tmp;
+		}
+
+		AlphaBetaSearch.prepareTable(table, root);
+
+		long start = System.nanoTime();
+		deadline = start + timeLimit * 1_000_000;
+		int maxDepth = (timeLimit > 0) ? MAX_DEPTH : depth;
+
+		for (int d = 1; d <= maxDepth; d++) {
+			SearchTask task = new SearchTask(root.copy(), moves, d);
+			int alpha = pool.invoke(task);
+
+			if (stopped.get()) {
+				break; // Use the result of the last iteration.
+			}
+
+			// Move the best move to the front for the next iteration.
+			long best = moves[task.bestMove];
+			System.arraycopy(moves, 0, moves, 1, task.bestMove);
+			moves[0] = best;
+			completedDepth = d;
+
+			if (alpha >= MIN_WIN || alpha <= -MIN_WIN) {
+				break; // A deeper search would find the same result.
+			}
+
+			if (timeLimit > 0 && System.nanoTime() - start > timeLimit * 500_000) {
+				break; // The next iteration would probably not finish.
+			}
+		}
+
+		return root.play(moves[0]);
+	}
+
+	/**
+	 * Scores a position by searching it to a fixed depth.
+	 * @param b The position.
+	 * @param depth The number of moves to look ahead.
+	 * @return The score of the position for the player whose turn it is.
+	 */
+	int score(BitBoard b, int depth) {
+		nodeCount.reset();
+		completedDepth = 0;
+		stopped.set(false);
+		stopSignal = new AtomicBoolean();
+		return -pool.invoke(new SearchTask(b.copy(), depth, 0,
+				new SplitPoint(null, -INFINITY, INFINITY)));
+	}
+
+	/**
+	 * @param split The innermost split point above a board.
+	 * @return <code>true</code> if the board's score is no longer needed.
+	 */
+	private boolean isAborted(SplitPoint split) {
+		if (stopped.get()) {
+			return true;
+		}
+		for (SplitPoint sp = split; sp != null; sp = sp.parent) {
+			if (sp.cutoff) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @param ply The number of moves made since the root.
+	 * @return The score of a position where the player
+	 * whose turn it is cannot move.
+	 */
+	private int lost(int ply) {
+		return isSuicideCheckers ? WIN - ply : LOSS + ply;
+	}
+
+	/**
+	 * @return The number of boards examined by the last search.
+	 */
+	public long getNodeCount() {
+		return nodeCount.sum();
+	}
+
+	/**
+	 * @return The number of moves that the last search
+	 * looked ahead in its last finished iteration.
+	 */
+	public int getCompletedDepth() {
+		return completedDepth;
+	}
+
+	/**
+	 * @return The number of threads that this engine searches with.
+	 */
+	public int getThreadCount() {
+		return pool.getParallelism();
+	}
+
+	/**
+	 * Sets the endgame database to look positions up in. It is
+	 * not used in suicide checkers, where the rules are different.
+	 * @param tablebase The database, or <code>null</code> for none.
+	 */
+	public void setTablebase(Tablebase tablebase) {
+		this.tablebase = isSuicideCheckers ? null : tablebase;
+	}
+
+	/**
+	 * Sets how to score the boards at the bottom of the search.
+	 * @param evaluator The evaluation.
+	 * @see AlphaBetaSearch#setEvaluator(Evaluator)
+	 */
+	public void setEvaluator(Evaluator<BitBoard> evaluator) {
+		this.evaluator = evaluator;
+	}
+
+	/**
+	 * Sets how long to think about each move.
+	 * @param timeLimit The number of milliseconds to spend on each move.
+	 * @see AlphaBetaSearch#setTimeLimit(long)
+	 */
+	public void setTimeLimit(long timeLimit) {
+		this.timeLimit = timeLimit;
+	}
+
+	/**
+	 * Stops the threads. The engine cannot be used afterwards.
+	 */
+	@Override
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+	/**
+	 * A board whose younger brothers are being searched in parallel.
+	 */
+	private static final class SplitPoint {
+
+		/** The split point above this one, or <code>null</code>. **/
+		final SplitPoint parent;
+
+		/** The best score found so far among the brothers. **/
+		final AtomicInteger alpha;
+
+		/** Any score this high will not be chosen by the opponent. **/
+		final int beta;
+
+		/** Set when a brother reaches {@link #beta}. **/
+		volatile boolean cutoff;
+
+		SplitPoint(SplitPoint parent, int alpha, int beta) {
+			this.parent = parent;
+			this.alpha = new AtomicInteger(alpha);
+			this.beta = beta;
+		}
+
+		/**
+		 * Records the score of one of the brothers.
+		 * @param score The score, from the point of view of this board.
+		 */
+		void update(int score) {
+			if (alpha.accumulateAndGet(score, Math::max) >= beta) {
+				cutoff = true; // The other brothers are not needed.
+			}
+		}
+
+	}
+
+	/**
+	 * The buffers of one thread, so that tasks need not allocate any. A
+	 * thread that is waiting for a task may run another in the meantime,
+	 * so the move buffers are used as a stack: each task takes the ones
+	 * above those of the tasks it interrupted, and gives them back when it
+	 * is done. The {@link Quiescence} search never waits, so one is enough.
+	 */
+	private static final class Worker {
+
+		/** The move buffers, one for each ply of each task. **/
+		long[][] moveBuffers = new long[MAX_DEPTH][BitBoard.MAX_MOVES];
+
+		/** The number of move buffers in use. **/
+		int top;
+
+		/** Scores the boards at the bottom of the search. **/
+		final Quiescence quiescence;
+
+		Worker(boolean isSuicideCheckers) {
+			quiescence = new Quiescence(isSuicideCheckers);
+		}
+
+		/**
+		 * Takes move buffers for a task.
+		 * @param count The number of buffers.
+		 * @return The index of the first one.
+		 */
+		int reserve(int count) {
+			int base = top;
+			top += count;
+
+			// Only happens if tasks are nested more deeply than ever before.
+			if (top > moveBuffers.length) {
+				int length = moveBuffers.length;
+				moveBuffers = Arrays.copyOf(moveBuffers,
+						Math.max(top, 2 * length));
+				for (int i = length; i < moveBuffers.length; i++) {
+					moveBuffers[i] = new long[BitBoard.MAX_MOVES];
+				}
+			}
+
+			return base;
+		}
+
+	}
+
+	/**
+	 * Searches one of the brothers at a split point,
+	 * or all of the moves at the root.
+	 */
+	private final class SearchTask extends RecursiveTask<Integer> {
+
+		private static final long serialVersionUID = 1L;
+
+		/** The board to search. **/
+		private final BitBoard board;
+
+		/** The moves from the root, or <code>null</code> below it. **/
+		private final long[] rootMoves;
+
+		/** The number of moves left to look ahead from the board. **/
+		private final int depth;
+
+		/** The number of moves made from the root to reach the board. **/
+		private final int ply;
+
+		/** The split point that this board is a brother at. **/
+		private final SplitPoint split;
+
+		/** The index of the best move found by the last search of moves. **/
+		int bestMove;
+
+		/** The number of boards examined by this task. **/
+		private long nodes;
+
+		/** The buffers of the thread running the task. **/
+		private Worker worker;
+
+		/** The index of the task's first move buffer in {@link #worker}. **/
+		private int base;
+
+		/** Scores the boards at the bottom of the search. **/
+		private Quiescence quiescence;
+
+		/**
+		 * Creates a task to search all moves from the root.
+		 * @param root The current position.
+		 * @param rootMoves The moves, best first.
+		 * @param depth The number of moves to look ahead.
+		 */
+		SearchTask(BitBoard root, long[] rootMoves, int depth) {
+			this(root, rootMoves, depth, 0, null);
+		}
+
+		/**
+		 * Creates a task to search a younger brother.
+		 * @param board The brother.
+		 * @param depth The number of moves left to look ahead.
+		 * @param ply The number of moves made since the root.
+		 * @param split The split point that the brother belongs to.
+		 */
+		SearchTask(BitBoard board, int depth, int ply, SplitPoint split) {
+			this(board, null, depth, ply, split);
+		}
+
+		private SearchTask(BitBoard board, long[] rootMoves,
+				int depth, int ply, SplitPoint split) {
+			this.board = board;
+			this.rootMoves = rootMoves;
+			this.depth = depth;
+			this.ply = ply;
+			this.split = split;
+		}
+
+		/**
+		 * @return The score from the point of view of the split point,
+		 * or <code>null</code> if the search was aborted.
+		 */
+		@Override
+		protected Integer compute() {
+			worker = workers.get();
+			base = worker.reserve(Math.max(depth, 1));
+			quiescence = worker.quiescence;
+			quiescence.evaluator = evaluator;
+
+			try {
+				if (rootMoves != null) {
+					return searchMoves(board, rootMoves, rootMoves.length,
+							depth, 0, -INFINITY, INFINITY, null);
+				}
+
+				int val = -negamax(board, depth, ply,
+						-split.beta, -split.alpha.get(), split);
+
+				if (isAborted(split)) {
+					return null;
+				}
+
+				split.update(val);
+				return val;
+			} finally {
+				worker.top = base;
+				nodeCount.add(nodes + quiescence.nodeCount);
+				quiescence.nodeCount = 0;
+			}
+		}
+
+		/**
+		 * The recursive part of the search.
+		 * @param b The position to score. Moves are made on it and undone,
+		 * so it is the same when this method returns.
+		 * @param depth The number of moves left to look ahead.
+		 * @param ply The number of moves made since the root.
+		 * @param alpha The score that the player to move is already assured of.
+		 * @param beta The score that the opponent is already assured of,
+		 * negated. Any score this high will not be chosen by the opponent.
+		 * @param split The innermost split point above this board.
+		 * @return The score of the position, or a bound on it if it is
+		 * outside the window from <code>alpha</code> to <code>beta</code>.
+		 * @see AlphaBetaSearch
+		 */
+		private int negamax(BitBoard b, int depth, int ply,
+				int alpha, int beta, SplitPoint split) {
+			// The first iteration is always allowed to finish in time.
+			if (++nodes % CLOCK_CHECK_INTERVAL == 0 && (stopSignal.get()
+					|| completedDepth > 0 && timeLimit > 0
+					&& System.nanoTime() - deadline > 0)) {
+				stopped.set(true);
+			}
+
+			if (isAborted(split)) {
+				return 0;
+			}
+
+			// Look endgames up instead of searching them.
+			if (tablebase != null && ply > 0
+					&& Integer.bitCount(b.p1 | b.p2) <= tablebase.getMaxPieces()) {
+				int value = tablebase.probe(b);
+				if (value != Tablebase.NOT_FOUND) {
+					return Tablebase.score(value, ply);
+				}
+			}
+
+			if (depth <= 0) {
+				return quiescence.score(b, ply, alpha, beta);
+			}
+
+			// See whether we already know enough about this board.
+			long entry = table.probe(b.key);
+			int tableMove = NO_MOVE;
+
+			if (entry != 0) {
+				tableMove = move(entry);
+
+				if (depth(entry) >= depth) {
+					int score = fromTable(TranspositionTable.score(entry), ply);
+					int bound = bound(entry);
+
+					if (bound == EXACT
+							|| (bound == LOWER_BOUND && score >= beta)
+							|| (bound == UPPER_BOUND && score <= alpha)) {
+						return score;
+					}
+				}
+			}
+
+			long[] moves = worker.moveBuffers[base + ply - this.ply];
+			int count = b.generateMoves(moves);
+
+			if (count == 0) {
+				return lost(ply);
+			}
+
+			if (tableMove >= count) {
+				tableMove = NO_MOVE; // a different board with the same hash
+			}
+
+			// Put the move from the table first by swapping it with the first.
+			if (tableMove > 0) {
+				long tmp = moves[0];
+				moves[0] = moves[tableMove];
+				moves[tableMove] = tmp;
+			}
+
+			int best = searchMoves(b, moves, count,
+					depth, ply, alpha, beta, split);
+
+			if (isAborted(split)) {
+				return 0; // The result is not reliable, so don't store it.
+			}
+
+			int bound = (best <= alpha) ? UPPER_BOUND
+					: (best >= beta) ? LOWER_BOUND : EXACT;
+			int index = (bestMove == 0 && tableMove > 0) ? tableMove
+					: (bestMove == tableMove) ? 0 : bestMove;
+			table.store(b.key, depth, bound, toTable(best, ply), index,
+					Integer.bitCount(b.p1 | b.p2));
+
+			return best;
+		}
+
+		/**
+		 * Searches the moves from a board, the first alone and the rest
+		 * in parallel if there is enough left to search. Sets
+		 * {@link #bestMove} to the index of the best move.
+		 * @param b The board.
+		 * @param moves The moves, in the order to try them.
+		 * @param count The number of moves.
+		 * @param depth The number of moves left to look ahead from the board.
+		 * @param ply The number of moves made to reach the board.
+		 * @param alpha The score that the player to move is already assured of.
+		 * @param beta Any score this high will not be chosen by the opponent.
+		 * @param split The innermost split point above the board.
+		 * @return The best score found.
+		 */
+		private int searchMoves(BitBoard b, long[] moves, int count,
+				int depth, int ply, int alpha, int beta, SplitPoint split) {
+			// The eldest brother is searched alone to get a bound for the rest.
+			int undo = b.makeMove(moves[0]);
+			int best = -negamax(b, depth - 1, ply + 1, -beta, -alpha, split);
+			b.unmakeMove(moves[0], undo);
+			int bestIndex = 0;
+
+			if (isAborted(split) || best >= beta) {
+				bestMove = bestIndex;
+				return best;
+			}
+
+			alpha = Math.max(alpha, best);
+
+			if (depth >= MIN_SPLIT_DEPTH && count > 2) {
+				SplitPoint sp = new SplitPoint(split, alpha, beta);
+				SearchTask[] tasks = new SearchTask[count - 1];
+
+				// Each task gets its own copy of the board to make moves on.
+				for (int i = 1; i < count; i++) {
+					tasks[i - 1] = new SearchTask(b.play(moves[i]),
+							depth - 1, ply + 1, sp);
+				}
+
+				invokeAll(tasks);
+
+				for (int i = 1; i < count; i++) {
+					Integer val = tasks[i - 1].getRawResult();
+					if (val != null && val > best) {
+						best = val;
+						bestIndex = i;
+					}
+				}
+			} else {
+				for (int i = 1; i < count; i++) {
+					undo = b.makeMove(moves[i]);
+					int val = -negamax(b, depth - 1, ply + 1,
+							-beta, -alpha, split);
+					b.unmakeMove(moves[i], undo);
+
+					if (isAborted(split)) {
+						break;
+					}
+
+					if (val > best) {
+						best = val;
+						bestIndex = i;
+						if (val > alpha) {
+							alpha = val;
+							if (alpha >= beta) {
+								break; // The opponent will never allow this.
+							}
+						}
+					}
+				}
+			}
+
+			bestMove = bestIndex;
+			return best;
+		}
+
+	}
+
+}
@@ -0,0 +1,139 @@
+package com.brianmccutchon.checkers.model;
+
+import static com.brianmccutchon.checkers.model.Checkers.*;
+
+import java.util.Random;
+
+/**
+ * <p>
+ * Zobrist hashing for checkers positions. Every combination of piece and
+ * square has a random 64-bit key, and a position's hash is the XOR of the
+ * keys of its pieces, plus {@link #P2_TO_MOVE} if it is player 2's turn.
+ * Making a move only changes the keys of the squares involved, so
+ * {@link BitBoard} updates its hash as it goes instead of recomputing it.
+ * </p><p>
+ * The keys come from a fixed seed, so hashes are the same from one run to
+ * the next and can be saved in files.
+ * </p>
+ * @author Brian McCutchon
+ */
+public final class Zobrist {
+
+	/** The seed of the random number generator. **/
+	private static final long SEED = 0x436865636B657273L; // "Checkers"
+
+	/**
+	 * The keys of the pieces, indexed by piece (see {@link #pieceIndex(byte)})
+	 * and then by square.
+	 */
+	static final long[][] PIECES = new long[4][32];
+
+	/** The key that is added when it is player 2's turn. **/
+	static final long P2_TO_MOVE;
+
+	/**
+	 * Keys for the depth stored in <code>board[0][1]</code>,
+	 * for hashes that include it.
+	 */
+	private static final long[] DEPTHS = new long[Byte.MAX_VALUE + 1];
+
+	static {
+		Random rand = new Random(SEED);
+
+		for (long[] keys : PIECES) {
+			for (int s = 0; s < keys.length; s++) {
+				keys[s] = rand.nextLong();
+			}
+		}
+
+		P2_TO_MOVE = rand.nextLong();
+
+		for (int d = 0; d < DEPTHS.length; d++) {
+			DEPTHS[d] = rand.nextLong();
+		}
+	}
+
+	private Zobrist() { }
+
+	/**
+	 * @param piece {@link Checkers#P1_PAWN P1_PAWN},
+	 * {@link Checkers#P1_KING P1_KING}, {@link Checkers#P2_PAWN P2_PAWN} or
+	 * {@link Checkers#P2_KING P2_KING}.
+	 * @return The index of the piece in {@link #PIECES}.
+	 */
+	static int pieceIndex(byte piece) {
+		switch (piece) {
+			case P1_PAWN: return 0;
+			case P1_KING: return 1;
+			case P2_PAWN: return 2;
+			default:      return 3;
+		}
+	}
+
+	/**
+	 * @param piece A piece.
+	 * @param s A square number, as in {@link BitBoard}.
+	 * @return The key of that piece on that square.
+	 */
+	static long key(byte piece, int s) {
+		return PIECES[pieceIndex(piece)][s];
+	}
+
+	/**
+	 * Computes the hash of a position from scratch.
+	 * @param b The position.
+	 * @return Its hash.
+	 */
+	public static long hash(BitBoard b) {
+		long h = (b.turn == P1_PAWN) ? 0 : P2_TO_MOVE;
+		h ^= hashSquares(b.p1 & ~b.kings, PIECES[0]);
+		h ^= hashSquares(b.p1 &  b.kings, PIECES[1]);
+		h ^= hashSquares(b.p2 & ~b.kings, PIECES[2]);
+		h ^= hashSquares(b.p2 &  b.kings, PIECES[3]);
+		return h;
+	}
+
+	/**
+	 * @param squares A set of squares.
+	 * @param keys The keys of one type of piece.
+	 * @return The XOR of the keys of those squares.
+	 */
+	static long hashSquares(int squares, long[] keys) {
+		long h = 0;
+		while (squares != 0) {
+			h ^= keys[Integer.numberOfTrailingZeros(squares)];
+			squares &= squares - 1;
+		}
+		return h;
+	}
+
+	/**
+	 * Computes the hash of a board in the form described in
+	 * {@link Checkers}. The depth in <code>b[0][1]</code> is ignored.
+	 * @param b The board.
+	 * @return Its hash.
+	 */
+	public static long hash(byte[][] b) {
+		long h = (b[0][0] == P1_PAWN) ? 0 : P2_TO_MOVE;
+
+		for (int s = 0; s < 32; s++) {
+			byte piece = b[s/4 + 1][s%4];
+			if (piece != UNOCCUPIED_SQUARE) {
+				h ^= key(piece, s);
+			}
+		}
+
+		return h;
+	}
+
+	/**
+	 * Like {@link #hash(byte[][])}, but includes the depth in
+	 * <code>b[0][1]</code>.
+	 * @param b The board.
+	 * @return Its hash.
+	 */
+	public static long hashWithDepth(byte[][] b) {
+		return hash(b) ^ DEPTHS[b[0][1]];
+	}
+
+}
@@ -199,6 +199,7 @@ public class CheckersGUI extends JPanel {
 		gui.setVisible(true);
 		
 		int endstate = checkers.play();
+		checkers.shutdown();
 		
 		if (endstate == TwoPlayer.PLAYER1WIN)
 			gui.setTitle("Black wins!");
@@ -13,8 +13,9 @@
 package framework;
 
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Stream;
 
 public class DSArrayList<E> implements Iterable<E> {
@@ -198,14 +199,42 @@ public class DSArrayList<E> implements Iterable<E> {
 		return rv;
 	}
 
+	/**
+	 * Removes every item. The array is kept, so the
+	 * DSArrayList can be filled again without allocating.
+	 */
+	public void clear() {
+		Arrays.fill(array, 0, numItems, null);
+		numItems = 0;
+	}
+
+	/**
+	 * @return A stream of the items. It knows its size,
+	 * so it splits evenly when run in parallel.
+	 */
 	public Stream<E> stream() {
-		return Arrays.stream(array).limit(numItems);
+		return Arrays.stream(array, 0, numItems);
 	}
 
+	/**
+	 * Puts the items in a random order, in place.
+	 */
 	public void shuffle() {
-		// TODO Actually implement shuffling!
-		array = Arrays.copyOfRange(array, 0, numItems);
-		Collections.shuffle(Arrays.asList(array));
+		shuffle(ThreadLocalRandom.current());
+	}
+
+	/**
+	 * Puts the items in a random order, in place,
+	 * with the Fisher&ndash;Yates shuffle.
+	 * @param random The source of randomness.
+	 */
+	public void shuffle(Random random) {
+		for (int i = numItems - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			E tmp = array[i];
+			array[i] = array[j];
+			array[j] = tmp;
+		}
 	}
 	
 }
@@ -5,14 +5,26 @@
 package framework;
 
 import java.math.BigInteger;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.List;
 
+/**
+ * A node in a tree. The children are kept in a plain array, in the
+ * order in which they were added, so a node costs little more than
+ * its fields and one reference for each child. Adding children is
+ * not safe to do from several threads at once; a tree that is built
+ * in parallel should give each node all of its children together
+ * with {@link #setChildren(DSNode[])}.
+ */
 public class DSNode<E> {
 
-	private Set<DSNode<E>> children;
+	/** The children of a node that has none. **/
+	@SuppressWarnings("rawtypes")
+	private static final DSNode[] NO_CHILDREN = new DSNode[0];
+
+	private DSNode<E>[] children;
 	private DSNode<E> parent;
 	private E thing;
 	
@@ -21,9 +33,10 @@ public class DSNode<E> {
 	 * @param thing The thing that this node holds.
 	 * @param parent The parent of this node.
 	 */
+	@SuppressWarnings("unchecked")
 	public DSNode(E thing, DSNode<E> parent) {
 		this.thing = thing;
-		children = Collections.newSetFromMap(new ConcurrentHashMap<>());
+		children = NO_CHILDREN;
 		this.parent = parent;
 	}
 
@@ -34,7 +47,7 @@ public class DSNode<E> {
 	 */
 	public DSNode<E> addChild(E something) {
 		DSNode<E> newNode = new DSNode<E>(something, this);
-		children.add(newNode);
+		addChild(newNode);
 		return newNode;
 	}
 
@@ -85,7 +98,7 @@ public class DSNode<E> {
 			return leafHash.get(this);
 		
 		// Base case: this is a leaf
-		if (children.size() == 0)
+		if (children.length == 0)
 			return BigInteger.ONE;
 		
 		// Return value.
@@ -106,15 +119,38 @@ public class DSNode<E> {
 	 */
 	public void addChild(DSNode<E> newNode) {
 		newNode.parent = this;
-		children.add(newNode);
+		children = Arrays.copyOf(children, children.length + 1);
+		children[children.length - 1] = newNode;
+	}
+
+	/**
+	 * Replaces the children of this node.
+	 * @param newChildren The new children, in order. The
+	 * node keeps the array, so it should not be changed.
+	 */
+	public void setChildren(DSNode<E>[] newChildren) {
+		for (DSNode<E> child : newChildren) {
+			child.parent = this;
+		}
+		children = newChildren;
 	}
 
 	/**
 	 * Gets the children of this node.
-	 * @return A DSArrayList containing the children. 
+	 * @return The children, in the order in which they were added.
+	 * The list cannot be changed.
+	 */
+	public List<DSNode<E>> returnChildren() {
+		return Collections.unmodifiableList(Arrays.asList(children));
+	}
+
+	/**
+	 * Gets a child of this node.
+	 * @param index The number of the child, from <code>0</code>.
+	 * @return The child.
 	 */
-	public Set<DSNode<E>> returnChildren() {
-		return children;
+	public DSNode<E> getChild(int index) {
+		return children[index];
 	}
 
 	/**
@@ -122,7 +158,7 @@ public class DSNode<E> {
 	 * @return The number of children.
 	 */
 	public int countChildren() {
-		return children.size();
+		return children.length;
 	}
 
 	/**
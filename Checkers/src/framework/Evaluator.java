@@ -0,0 +1,24 @@
+package framework;
+
+/**
+ * A way of scoring a board that a search has decided not to look past.
+ * Search engines take one so that the evaluation can be changed, or
+ * tuned, without changing the search.
+ * <p>
+ * The generic parameter represents the board, as in {@link Game}.
+ *
+ * @author Brian McCutchon
+ * @see SearchEngine
+ */
+public interface Evaluator<B> {
+
+	/**
+	 * Scores a board. Does not check whether the game is over.
+	 * @param board The board. It is not modified.
+	 * @return The favorability of the board to the player whose turn it
+	 * is, where greater numbers are more favorable. The score for the other
+	 * player must be the negation of this.
+	 */
+	public int evaluate(B board);
+
+}
@@ -1,9 +1,6 @@
 package framework;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Optional;
-import java.util.Set;
+import java.util.List;
 import java.util.stream.Stream;
 
 /**
@@ -141,13 +138,13 @@ public abstract class Game<B> {
 	 * {@code -1} if the tree has no depth limit.
 	 * @return The game tree.
 	 */
+	@SuppressWarnings("unchecked")
 	protected DSGameNode<B> buildTree(B b, int depth) {
-		String bh = boardHash(b);
+		long bh = boardHash(b);
 
-		synchronized (boardNodes) {
-			if (boardNodes.containsKey(bh))
-				return boardNodes.get(bh);
-		}
+		DSGameNode<B> memo = boardNodes.get(bh);
+		if (memo != null)
+			return memo;
 		
 		DSGameNode<B> root = new DSGameNode<B>(b, null);
 		numNodes++;
@@ -161,13 +158,13 @@ public abstract class Game<B> {
 			if (maxTreeDepth - depth < THREAD_DEPTH - 1) {
 				stream = stream.parallel();
 			}
-			stream.map(c -> buildTree(c, depth - 1))
-					.forEach(root::addChild);
+			// Collecting them keeps the children in order,
+			// even when they are built in parallel.
+			root.setChildren(stream.map(c -> buildTree(c, depth - 1))
+					.toArray(DSNode[]::new));
 		}
 
-		synchronized (boardNodes) {
-			boardNodes.put(bh, root);
-		}
+		boardNodes.put(bh, root);
 
 		return root;
 	}
@@ -176,7 +173,7 @@ public abstract class Game<B> {
 	 * Creates a new "deeply equal" board. The clone
 	 * should share no references with the original board,
 	 * but {@link #boardHash(B)} should return equal
-	 * Strings for both the old board and its clone.
+	 * hashes for both the old board and its clone.
 	 * @param b The board to clone.
 	 * @return The cloned board.
 	 */
@@ -192,23 +189,45 @@ public abstract class Game<B> {
 
 	/**
 	 * Used to remember the result of a board.
-	 * Maps hash strings to Integers.
+	 * Keyed by {@link #boardHash(Object) board hashes}.
+	 * Safe to share between threads without locking.
+	 * Created by {@link #boardValues()} when first needed.
+	 */
+	private volatile TranspositionTable boardValues;
+
+	/**
+	 * Games that override {@link #evaluateNode(DSGameNode)} may never
+	 * need the table, so it is only created when it is first used.
+	 * @return The table used to remember the result of a board.
 	 */
-	protected Map<String, Integer> boardValues = new HashMap<>();
+	protected TranspositionTable boardValues() {
+		TranspositionTable table = boardValues;
+		if (table == null) {
+			synchronized (this) {
+				table = boardValues;
+				if (table == null) {
+					boardValues = table = new TranspositionTable(1 << 16);
+				}
+			}
+		}
+		return table;
+	}
 	
 	/**
 	 * Used to remember the descendants of a node.
-	 * Maps hash strings to game nodes.
+	 * Maps board hashes to game nodes.
+	 * Safe to share between threads without locking.
 	 */
-	protected Map<String, DSGameNode<B>> boardNodes = new HashMap<>();
+	protected NodeCache<DSGameNode<B>> boardNodes = new NodeCache<>(1 << 16);
 	
 	/**
-	 * Creates a String that represents the
-	 * board (for use in a HashMap). 
+	 * Computes a 64-bit hash of the board, such as a Zobrist hash.
+	 * Different boards should be very unlikely to have the same hash,
+	 * and no board may have a hash of <code>0</code>.
 	 * @param b The board.
-	 * @return A String representing the board.
+	 * @return The hash of the board.
 	 */
-	protected abstract String boardHash(B b);
+	protected abstract long boardHash(B b);
 	
 	/**
 	 * Determines who wins a particular board.
@@ -220,10 +239,12 @@ public abstract class Game<B> {
 	protected int evaluateNode(DSGameNode<B> node) {
 		int rv = -99; // code for "uninitialized"
 		
-		String bh = boardHash(node.returnThing());
+		long bh = boardHash(node.returnThing());
 		
-		if (boardValues.containsKey(bh))
-			return boardValues.get(bh);
+		TranspositionTable values = boardValues();
+		long entry = values.probe(bh);
+		if (entry != 0)
+			return TranspositionTable.score(entry);
 		
 		// First, look at our own board.
 		int val = evaluateBoard(node.returnThing());
@@ -231,7 +252,7 @@ public abstract class Game<B> {
 		if(val != TwoPlayer.CONTINUE) {
 			rv = val;
 		} else {
-			Set<DSNode<B>> children = node.returnChildren();
+			List<DSNode<B>> children = node.returnChildren();
 
 			boolean drawIsPossible = false; // flag!
 			int turn = whoseTurn(node.returnThing());
@@ -261,7 +282,8 @@ public abstract class Game<B> {
 			}
 		}
 
-		boardValues.put(bh, rv);
+		values.store(bh, 0, TranspositionTable.EXACT, rv,
+				TranspositionTable.NO_MOVE);
 		
 		return rv;
 	}
@@ -284,10 +306,9 @@ public abstract class Game<B> {
 
 	/**
 	 * Inner class used for building game trees.
-	 * Holds win/lose/draw info on each node.
+	 * Results are kept in {@link Game#boardValues()}, not in the nodes.
 	 */
 	protected class DSGameNode<E> extends DSNode<E> {
-		public int winState;
 
 		// Constructor
 		public DSGameNode(E thing, DSNode<E> parent) {
@@ -0,0 +1,230 @@
+package framework;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * <p>
+ * A {@link DSArrayList} of <code>int</code>s, such as scores or move
+ * numbers, that keeps them in an <code>int[]</code> rather than boxing
+ * each one in an {@link Integer}.
+ * </p><p>
+ * A list that is filled again for every node of a search can be
+ * {@link #clear() cleared} and reused, so that its array is only
+ * allocated once.
+ * </p>
+ *
+ * @author Brian McCutchon
+ * @see LongArrayList
+ */
+public class IntArrayList {
+
+	/** Holds the items. Only the first {@link #size} are used. **/
+	private int[] array;
+
+	/** The number of items in the list. **/
+	private int size;
+
+	/**
+	 * Creates an IntArrayList with room for 10 items.
+	 */
+	public IntArrayList() {
+		this(10);
+	}
+
+	/**
+	 * Creates an IntArrayList.
+	 * @param capacity The initial capacity of the list.
+	 */
+	public IntArrayList(int capacity) {
+		array = new int[capacity];
+	}
+
+	/**
+	 * Adds an item to the end of the list.
+	 * Enlarges the array as necessary.
+	 * @param item The item to add.
+	 */
+	public void add(int item) {
+		if (size == array.length) {
+			array = Arrays.copyOf(array, Math.max(10, size * 2));
+		}
+		array[size++] = item;
+	}
+
+	/**
+	 * @param index The place of an item.
+	 * @return The item.
+	 * @throws IndexOutOfBoundsException
+	 * If the index is not in [0, size()).
+	 */
+	public int get(int index) {
+		checkIndex(index);
+		return array[index];
+	}
+
+	/**
+	 * Replaces an item.
+	 * @param index The place of the item.
+	 * @param item The new item.
+	 * @throws IndexOutOfBoundsException
+	 * If the index is not in [0, size()).
+	 */
+	public void set(int index, int item) {
+		checkIndex(index);
+		array[index] = item;
+	}
+
+	/** @return The number of items in the list. **/
+	public int size() {
+		return size;
+	}
+
+	/** @return <code>true</code> if the list has no items. **/
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Removes every item. The array is kept, so the
+	 * list can be filled again without allocating.
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Removes and returns the last item.
+	 * @return The last item.
+	 * @throws NoSuchElementException If the list is empty.
+	 */
+	public int pop() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		return array[--size];
+	}
+
+	/**
+	 * @param item An item.
+	 * @return <code>true</code> if the list contains the item.
+	 */
+	public boolean contains(int item) {
+		for (int i = 0; i < size; i++) {
+			if (array[i] == item) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/** @return A new array holding the items. **/
+	public int[] toArray() {
+		return Arrays.copyOf(array, size);
+	}
+
+	/** @return An iterator over the items that does not box them. **/
+	public PrimitiveIterator.OfInt iterator() {
+		return new PrimitiveIterator.OfInt() {
+			int i = 0;
+
+			@Override
+			public boolean hasNext() {
+				return i < size;
+			}
+
+			@Override
+			public int nextInt() {
+				if (i >= size) {
+					throw new NoSuchElementException();
+				}
+				return array[i++];
+			}
+		};
+	}
+
+	/**
+	 * Performs an action on each item, in order, without boxing it.
+	 * @param action The action.
+	 */
+	public void forEach(IntConsumer action) {
+		for (int i = 0; i < size; i++) {
+			action.accept(array[i]);
+		}
+	}
+
+	/** @return A stream of the items, which are not boxed. **/
+	public IntStream stream() {
+		return Arrays.stream(array, 0, size);
+	}
+
+	/**
+	 * Puts the items in a random order, in place.
+	 */
+	public void shuffle() {
+		shuffle(ThreadLocalRandom.current());
+	}
+
+	/**
+	 * Puts the items in a random order, in place,
+	 * with the Fisher&ndash;Yates shuffle.
+	 * @param random The source of randomness.
+	 */
+	public void shuffle(Random random) {
+		for (int i = size - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int tmp = array[i];
+			array[i] = array[j];
+			array[j] = tmp;
+		}
+	}
+
+	/**
+	 * @param index The place of an item.
+	 * @throws IndexOutOfBoundsException
+	 * If the index is not in [0, size()).
+	 */
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException(
+					"Index: " + index + ", Size: " + size);
+		}
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (!(obj instanceof IntArrayList)) {
+			return false;
+		}
+		IntArrayList other = (IntArrayList) obj;
+		if (size != other.size) {
+			return false;
+		}
+		for (int i = 0; i < size; i++) {
+			if (array[i] != other.array[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = 1;
+		for (int i = 0; i < size; i++) {
+			hash = 31 * hash + array[i];
+		}
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(toArray());
+	}
+
+}
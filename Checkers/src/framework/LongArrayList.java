@@ -0,0 +1,230 @@
+package framework;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+/**
+ * <p>
+ * A {@link DSArrayList} of <code>long</code>s, such as moves or
+ * hashes, that keeps them in a <code>long[]</code> rather than boxing
+ * each one in a {@link Long}.
+ * </p><p>
+ * A list that is filled again for every node of a search can be
+ * {@link #clear() cleared} and reused, so that its array is only
+ * allocated once.
+ * </p>
+ *
+ * @author Brian McCutchon
+ * @see IntArrayList
+ */
+public class LongArrayList {
+
+	/** Holds the items. Only the first {@link #size} are used. **/
+	private long[] array;
+
+	/** The number of items in the list. **/
+	private int size;
+
+	/**
+	 * Creates a LongArrayList with room for 10 items.
+	 */
+	public LongArrayList() {
+		this(10);
+	}
+
+	/**
+	 * Creates a LongArrayList.
+	 * @param capacity The initial capacity of the list.
+	 */
+	public LongArrayList(int capacity) {
+		array = new long[capacity];
+	}
+
+	/**
+	 * Adds an item to the end of the list.
+	 * Enlarges the array as necessary.
+	 * @param item The item to add.
+	 */
+	public void add(long item) {
+		if (size == array.length) {
+			array = Arrays.copyOf(array, Math.max(10, size * 2));
+		}
+		array[size++] = item;
+	}
+
+	/**
+	 * @param index The place of an item.
+	 * @return The item.
+	 * @throws IndexOutOfBoundsException
+	 * If the index is not in [0, size()).
+	 */
+	public long get(int index) {
+		checkIndex(index);
+		return array[index];
+	}
+
+	/**
+	 * Replaces an item.
+	 * @param index The place of the item.
+	 * @param item The new item.
+	 * @throws IndexOutOfBoundsException
+	 * If the index is not in [0, size()).
+	 */
+	public void set(int index, long item) {
+		checkIndex(index);
+		array[index] = item;
+	}
+
+	/** @return The number of items in the list. **/
+	public int size() {
+		return size;
+	}
+
+	/** @return <code>true</code> if the list has no items. **/
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Removes every item. The array is kept, so the
+	 * list can be filled again without allocating.
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Removes and returns the last item.
+	 * @return The last item.
+	 * @throws NoSuchElementException If the list is empty.
+	 */
+	public long pop() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		return array[--size];
+	}
+
+	/**
+	 * @param item An item.
+	 * @return <code>true</code> if the list contains the item.
+	 */
+	public boolean contains(long item) {
+		for (int i = 0; i < size; i++) {
+			if (array[i] == item) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/** @return A new array holding the items. **/
+	public long[] toArray() {
+		return Arrays.copyOf(array, size);
+	}
+
+	/** @return An iterator over the items that does not box them. **/
+	public PrimitiveIterator.OfLong iterator() {
+		return new PrimitiveIterator.OfLong() {
+			int i = 0;
+
+			@Override
+			public boolean hasNext() {
+				return i < size;
+			}
+
+			@Override
+			public long nextLong() {
+				if (i >= size) {
+					throw new NoSuchElementException();
+				}
+				return array[i++];
+			}
+		};
+	}
+
+	/**
+	 * Performs an action on each item, in order, without boxing it.
+	 * @param action The action.
+	 */
+	public void forEach(LongConsumer action) {
+		for (int i = 0; i < size; i++) {
+			action.accept(array[i]);
+		}
+	}
+
+	/** @return A stream of the items, which are not boxed. **/
+	public LongStream stream() {
+		return Arrays.stream(array, 0, size);
+	}
+
+	/**
+	 * Puts the items in a random order, in place.
+	 */
+	public void shuffle() {
+		shuffle(ThreadLocalRandom.current());
+	}
+
+	/**
+	 * Puts the items in a random order, in place,
+	 * with the Fisher&ndash;Yates shuffle.
+	 * @param random The source of randomness.
+	 */
+	public void shuffle(Random random) {
+		for (int i = size - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			long tmp = array[i];
+			array[i] = array[j];
+			array[j] = tmp;
+		}
+	}
+
+	/**
+	 * @param index The place of an item.
+	 * @throws IndexOutOfBoundsException
+	 * If the index is not in [0, size()).
+	 */
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException(
+					"Index: " + index + ", Size: " + size);
+		}
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (!(obj instanceof LongArrayList)) {
+			return false;
+		}
+		LongArrayList other = (LongArrayList) obj;
+		if (size != other.size) {
+			return false;
+		}
+		for (int i = 0; i < size; i++) {
+			if (array[i] != other.array[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = 1;
+		for (int i = 0; i < size; i++) {
+			hash = 31 * hash + Long.hashCode(array[i]);
+		}
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(toArray());
+	}
+
+}
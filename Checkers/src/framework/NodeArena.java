@@ -0,0 +1,203 @@
+package framework;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * <p>
+ * Holds the nodes of a game tree outside the Java heap, so that a tree of
+ * tens of millions of nodes neither needs a huge heap nor gives the garbage
+ * collector anything to do.
+ * </p><p>
+ * Each node is a record of a fixed number of bytes, whose layout is up to
+ * the game, and is known by its index rather than by a reference. Nodes are
+ * allocated in blocks of consecutive indices, so a node can find all of its
+ * children from the index of the first and their number. Nothing is freed
+ * on its own; instead, {@link #reset()} forgets the whole tree at once, as
+ * between moves, and the memory is used again for the next one.
+ * </p><p>
+ * The records are kept in direct buffers of {@link #CHUNK_NODES} nodes each,
+ * which are only allocated when they are first needed. An arena is not safe
+ * to use from several threads at once. By default, the JVM allows no more
+ * direct memory than heap; a large arena needs a larger limit, set with
+ * <code>-XX:MaxDirectMemorySize</code>.
+ * </p>
+ *
+ * @author Brian McCutchon
+ * @see DSNode
+ */
+public class NodeArena {
+
+	/** The number of nodes in each buffer. **/
+	public static final int CHUNK_NODES = 1 << 16;
+
+	/** The number of bytes in each node. **/
+	private final int nodeSize;
+
+	/** The most nodes that the arena can hold. **/
+	private final int capacity;
+
+	/** The buffers that hold the nodes. **/
+	private final ByteBuffer[] chunks;
+
+	/** The number of nodes allocated since the last {@link #reset()}. **/
+	private int size;
+
+	/**
+	 * Creates an empty arena.
+	 * @param nodeSize The number of bytes in each node.
+	 * @param capacity The most nodes that the arena can hold.
+	 */
+	public NodeArena(int nodeSize, int capacity) {
+		if (nodeSize <= 0 || (long) nodeSize * CHUNK_NODES > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Bad node size: " + nodeSize);
+		}
+
+		this.nodeSize = nodeSize;
+		this.capacity = capacity;
+		chunks = new ByteBuffer[(capacity + CHUNK_NODES - 1) / CHUNK_NODES];
+	}
+
+	/**
+	 * Allocates consecutive nodes. Their contents are undefined
+	 * until they are written.
+	 * @param count The number of nodes.
+	 * @return The index of the first node, or <code>-1</code>
+	 * if there is not enough room left.
+	 */
+	public int allocate(int count) {
+		if (count > capacity - size) {
+			return -1;
+		}
+
+		int first = size;
+		size += count;
+
+		for (int c = first / CHUNK_NODES; c <= (size - 1) / CHUNK_NODES; c++) {
+			if (chunks[c] == null) {
+				chunks[c] = ByteBuffer.allocateDirect(CHUNK_NODES * nodeSize)
+						.order(ByteOrder.nativeOrder());
+			}
+		}
+
+		return first;
+	}
+
+	/**
+	 * Forgets every node. The memory is kept for the next tree.
+	 */
+	public void reset() {
+		size = 0;
+	}
+
+	/** @return The number of nodes allocated since the last reset. **/
+	public int size() {
+		return size;
+	}
+
+	/** @return The most nodes that the arena can hold. **/
+	public int capacity() {
+		return capacity;
+	}
+
+	/** @return The number of bytes that the arena has allocated so far. **/
+	public long getMemory() {
+		long chunkCount = 0;
+		for (ByteBuffer chunk : chunks) {
+			if (chunk != null) {
+				chunkCount++;
+			}
+		}
+		return chunkCount * CHUNK_NODES * nodeSize;
+	}
+
+	/**
+	 * @param node The index of a node.
+	 * @return The buffer that holds the node.
+	 */
+	private ByteBuffer chunk(int node) {
+		return chunks[node / CHUNK_NODES];
+	}
+
+	/**
+	 * @param node The index of a node.
+	 * @param offset The position of a field in the node.
+	 * @return The position of the field in the node's buffer.
+	 */
+	private int position(int node, int offset) {
+		return (node % CHUNK_NODES) * nodeSize + offset;
+	}
+
+	/**
+	 * @param node The index of a node.
+	 * @param offset The position of the field in the node.
+	 * @return The value of the field.
+	 */
+	public byte getByte(int node, int offset) {
+		return chunk(node).get(position(node, offset));
+	}
+
+	/**
+	 * @param node The index of a node.
+	 * @param offset The position of the field in the node.
+	 * @param value The new value of the field.
+	 */
+	public void putByte(int node, int offset, byte value) {
+		chunk(node).put(position(node, offset), value);
+	}
+
+	/**
+	 * @param node The index of a node.
+	 * @param offset The position of the field in the node.
+	 * @return The value of the field.
+	 */
+	public short getShort(int node, int offset) {
+		return chunk(node).getShort(position(node, offset));
+	}
+
+	/**
+	 * @param node The index of a node.
+	 * @param offset The position of the field in the node.
+	 * @param value The new value of the field.
+	 */
+	public void putShort(int node, int offset, short value) {
+		chunk(node).putShort(position(node, offset), value);
+	}
+
+	/**
+	 * @param node The index of a node.
+	 * @param offset The position of the field in the node.
+	 * @return The value of the field.
+	 */
+	public int getInt(int node, int offset) {
+		return chunk(node).getInt(position(node, offset));
+	}
+
+	/**
+	 * @param node The index of a node.
+	 * @param offset The position of the field in the node.
+	 * @param value The new value of the field.
+	 */
+	public void putInt(int node, int offset, int value) {
+		chunk(node).putInt(position(node, offset), value);
+	}
+
+	/**
+	 * @param node The index of a node.
+	 * @param offset The position of the field in the node.
+	 * @return The value of the field.
+	 */
+	public long getLong(int node, int offset) {
+		return chunk(node).getLong(position(node, offset));
+	}
+
+	/**
+	 * @param node The index of a node.
+	 * @param offset The position of the field in the node.
+	 * @param value The new value of the field.
+	 */
+	public void putLong(int node, int offset, long value) {
+		chunk(node).putLong(position(node, offset), value);
+	}
+
+}
@@ -0,0 +1,101 @@
+
+package framework;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * A fixed-size cache of objects keyed by 64-bit board hashes, which
+ * any number of threads may read and write without locking.
+ * </p><p>
+ * Each slot holds a reference to an immutable key-value pair, and
+ * slots are read and written atomically, so a reader always sees a
+ * complete pair. A new value simply replaces whatever was in its slot.
+ * </p>
+ * 
+ * @author Brian McCutchon
+ * @see TranspositionTable
+ */
+public class NodeCache<V> {
+
+	/** An immutable key-value pair. **/
+	private static final class Entry<V> {
+		final long key;
+		final V value;
+
+		Entry(long key, V value) {
+			this.key = key;
+			this.value = value;
+		}
+	}
+
+	/** The slots. **/
+	private final AtomicReferenceArray<Entry<V>> slots;
+
+	/** Used to turn a hash into the index of its slot. **/
+	private final int mask;
+
+	/** The number of values that were found by {@link #get(long)}. **/
+	private final LongAdder hits = new LongAdder();
+
+	/** The number of values that were not found by {@link #get(long)}. **/
+	private final LongAdder misses = new LongAdder();
+
+	/** The number of values replaced by one for a different key. **/
+	private final LongAdder collisions = new LongAdder();
+
+	/**
+	 * Creates an empty cache.
+	 * @param size The number of slots. It is rounded up to a power of two.
+	 */
+	public NodeCache(int size) {
+		int n = Integer.highestOneBit(Math.max(size - 1, 1)) << 1;
+		slots = new AtomicReferenceArray<>(n);
+		mask = n - 1;
+	}
+
+	/**
+	 * @param key The hash of a board.
+	 * @return The value stored for it, or <code>null</code> if there is none.
+	 */
+	public V get(long key) {
+		Entry<V> e = slots.get(index(key));
+
+		if (e != null && e.key == key) {
+			hits.increment();
+			return e.value;
+		}
+
+		misses.increment();
+		return null;
+	}
+
+	/**
+	 * Stores a value, replacing whatever was in its slot.
+	 * @param key The hash of a board.
+	 * @param value The value to store.
+	 */
+	public void put(long key, V value) {
+		Entry<V> old = slots.getAndSet(index(key), new Entry<>(key, value));
+
+		if (old != null && old.key != key) {
+			collisions.increment();
+		}
+	}
+
+	/**
+	 * @param key The hash of a board.
+	 * @return The index of its slot.
+	 */
+	private int index(long key) {
+		return (int) (key ^ (key >>> 32)) & mask;
+	}
+
+	@Override
+	public String toString() {
+		return "hits: " + hits.sum() + ", misses: " + misses.sum()
+				+ ", collisions: " + collisions.sum();
+	}
+
+}
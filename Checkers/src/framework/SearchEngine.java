@@ -0,0 +1,43 @@
+
+package framework;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A way of choosing the computer's move. Unlike
+ * {@link Game#computerMove(int)}, an engine does not
+ * need to build a game tree.
+ * <p>
+ * The generic parameter represents the board, as in {@link Game}.
+ * 
+ * @author Brian McCutchon
+ * @see TwoPlayer#setSearchEngine(SearchEngine)
+ */
+public interface SearchEngine<B> {
+
+	/**
+	 * Chooses a move for the player whose turn it is.
+	 * @param board The current board. It is not modified.
+	 * @return A new board showing the result of the chosen move.
+	 */
+	public B search(B board);
+
+	/**
+	 * Like {@link #search(Object)}, but can be stopped early by another
+	 * thread. If it is stopped, the move returned may be a poor one.
+	 * Engines that cannot be stopped ignore the signal.
+	 * @param board The current board. It is not modified.
+	 * @param stopSignal Set by another thread to stop the search.
+	 * @return A new board showing the result of the chosen move.
+	 */
+	public default B search(B board, AtomicBoolean stopSignal) {
+		return search(board);
+	}
+
+	/**
+	 * Stops any threads that the engine searches with. The engine
+	 * cannot be used afterwards. Engines without threads do nothing.
+	 */
+	public default void shutdown() {}
+
+}
@@ -0,0 +1,306 @@
+
+package framework;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * A fixed-size hash table that remembers what a search has
+ * learned about each board, so that boards reached by different
+ * orders of moves (transpositions) only have to be searched once.
+ * </p><p>
+ * Boards are identified only by a 64-bit hash, such as a Zobrist
+ * hash, which must not be <code>0</code>. Each entry holds the
+ * depth to which the board was searched, the score found, whether
+ * that score is exact or only a bound, and the best move. All of
+ * this is packed into one <code>long</code>, which
+ * {@link #probe(long)} returns and the static methods of this
+ * class take apart, so that looking up a board creates no objects.
+ * </p><p>
+ * Entries are kept in buckets of two. The first slot keeps
+ * whichever entry was searched more deeply, and the second
+ * is always replaced. This keeps valuable deep results around
+ * while still remembering the most recent shallow ones.
+ * </p><p>
+ * The table is meant to be kept from one move to the next, since
+ * the position after each move was usually searched during the
+ * last one. Calling {@link #newSearch()} before each search marks
+ * the entries already in the table as old, and an old entry in the
+ * first slot is replaced no matter how deep it is, so the table
+ * does not fill up with deep results about positions that the game
+ * has left behind. Each entry may also be stored with the number of
+ * pieces on the board. Pieces never come back once they are taken,
+ * so {@link #evict(int)} can forget every board with more pieces than
+ * the current one, since none of them can be reached again.
+ * </p><p>
+ * Any number of threads may use the table at once without locking.
+ * Instead of the hash itself, each slot holds the hash XORed with
+ * the data. If two threads write the same slot at once, a reader
+ * may see the hash of one entry with the data of the other, but then
+ * the XOR no longer gives back the hash it is looking for, so the
+ * slot is treated as empty rather than giving a wrong answer.
+ * </p>
+ * 
+ * @author Brian McCutchon
+ */
+public class TranspositionTable {
+
+	/** Bound type of a score that is exact. **/
+	public static final int EXACT = 1;
+
+	/** Bound type of a score that is at least the true score. **/
+	public static final int UPPER_BOUND = 2;
+
+	/** Bound type of a score that is at most the true score. **/
+	public static final int LOWER_BOUND = 3;
+
+	/** Value of {@link #move(long)} when no move is known. **/
+	public static final int NO_MOVE = -1;
+
+	/**
+	 * Holds the entries: the hash of the first slot of a bucket
+	 * XORed with its data, the data, and then the same for the
+	 * second slot.
+	 */
+	private final long[] table;
+
+	/** Used to turn a hash into the index of its bucket. **/
+	private final int mask;
+
+	/** The number of the current search, kept in each entry stored. **/
+	private int age;
+
+	/** The most pieces on any board left after {@link #evict(int)}. **/
+	private int maxPieces = Integer.MAX_VALUE;
+
+	/** The number of boards that were found by {@link #probe(long)}. **/
+	private final LongAdder hits = new LongAdder();
+
+	/** The number of boards that were not found by {@link #probe(long)}. **/
+	private final LongAdder misses = new LongAdder();
+
+	/** The number of entries replaced by a different board. **/
+	private final LongAdder collisions = new LongAdder();
+
+	/**
+	 * Creates an empty table.
+	 * @param size The number of entries. It is rounded
+	 * up to a power of two, and must be at least two.
+	 */
+	public TranspositionTable(int size) {
+		int buckets = Integer.highestOneBit(Math.max(size - 1, 1));
+		table = new long[buckets * 4];
+		mask = buckets - 1;
+	}
+
+	/**
+	 * Returns a size for a table that uses a given amount of memory.
+	 * @param bytes The most memory that the table may use.
+	 * @return The largest number of entries that fits, to be passed
+	 * to {@link #TranspositionTable(int)}.
+	 */
+	public static int sizeFor(long bytes) {
+		// Each entry is two longs.
+		long entries = Math.max(bytes / 16, 2);
+		return (int) Long.highestOneBit(Math.min(entries, 1 << 29));
+	}
+
+	/**
+	 * Looks up a board.
+	 * @param key The hash of the board.
+	 * @return An entry, to be read with {@link #score(long)},
+	 * {@link #depth(long)}, {@link #bound(long)} and
+	 * {@link #move(long)}, or <code>0</code> if the board is not in the table.
+	 */
+	public long probe(long key) {
+		int i = index(key);
+
+		// Read each slot's data once, since another thread may change it.
+		long data = table[i + 1];
+		if ((table[i] ^ data) == key && data != 0) {
+			hits.increment();
+			return data;
+		}
+
+		data = table[i + 3];
+		if ((table[i + 2] ^ data) == key && data != 0) {
+			hits.increment();
+			return data;
+		}
+
+		misses.increment();
+		return 0;
+	}
+
+	/**
+	 * Remembers what was learned about a board.
+	 * @param key The hash of the board.
+	 * @param depth The depth to which the board was searched.
+	 * @param bound {@link #EXACT}, {@link #UPPER_BOUND} or {@link #LOWER_BOUND}.
+	 * @param score The score found. Must fit in a <code>short</code>.
+	 * @param move The best move, or {@link #NO_MOVE}. Its meaning is up to
+	 * the game. Must fit in a <code>short</code>.
+	 */
+	public void store(long key, int depth, int bound, int score, int move) {
+		store(key, depth, bound, score, move, 0);
+	}
+
+	/**
+	 * Remembers what was learned about a board, along
+	 * with the number of pieces on it.
+	 * @param key The hash of the board.
+	 * @param depth The depth to which the board was searched.
+	 * @param bound {@link #EXACT}, {@link #UPPER_BOUND} or {@link #LOWER_BOUND}.
+	 * @param score The score found. Must fit in a <code>short</code>.
+	 * @param move The best move, or {@link #NO_MOVE}. Must fit in a
+	 * <code>short</code>.
+	 * @param pieces The number of pieces on the board, from 0 to 255.
+	 * @see #evict(int)
+	 */
+	public void store(long key, int depth, int bound, int score, int move,
+			int pieces) {
+		long data = (score & 0xFFFFL)
+				| (long) (depth & 0xFF) << 16
+				| (long) bound << 24
+				| (long) age << 26
+				| (move & 0xFFFFL) << 32
+				| (long) (pieces & 0xFF) << 48;
+
+		int i = index(key);
+		long oldData = table[i + 1];
+
+		// An entry from an earlier search is replaced even if it is deeper.
+		if ((table[i] ^ oldData) != key && oldData != 0
+				&& depth < depth(oldData) && age(oldData) == age) {
+			i += 2; // keep the deeper entry; use the other slot
+			oldData = table[i + 1];
+		}
+
+		if (oldData != 0 && (table[i] ^ oldData) != key) {
+			collisions.increment();
+		}
+
+		table[i] = key ^ data;
+		table[i + 1] = data;
+	}
+
+	/**
+	 * @param key The hash of a board.
+	 * @return The index of the first slot of its bucket in {@link #table}.
+	 */
+	private int index(long key) {
+		return ((int) (key ^ (key >>> 32)) & mask) << 2;
+	}
+
+	/**
+	 * Marks every entry in the table as old. This should be called before
+	 * each search, but not while other threads are using the table.
+	 */
+	public void newSearch() {
+		age = (age + 1) & 0x3F;
+	}
+
+	/**
+	 * Forgets every board stored with more than a given number of pieces.
+	 * This should not be called while other threads are using the table.
+	 * It only goes through the table if the number is lower than the last
+	 * time, so it is cheap to call before every search.
+	 * @param pieces The number of pieces on the board now.
+	 */
+	public void evict(int pieces) {
+		if (pieces < maxPieces) {
+			for (int i = 0; i < table.length; i += 2) {
+				if (table[i + 1] != 0 && pieces(table[i + 1]) > pieces) {
+					table[i] = 0;
+					table[i + 1] = 0;
+				}
+			}
+		}
+		maxPieces = pieces;
+	}
+
+	/**
+	 * Forgets every board. This should not be called
+	 * while other threads are using the table.
+	 */
+	public void clear() {
+		Arrays.fill(table, 0);
+		maxPieces = Integer.MAX_VALUE;
+	}
+
+	/** @return The number of boards found by {@link #probe(long)}. **/
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/** @return The number of boards not found by {@link #probe(long)}. **/
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return The number of times that an entry was
+	 * replaced by one for a different board.
+	 */
+	public long getCollisions() {
+		return collisions.sum();
+	}
+
+	@Override
+	public String toString() {
+		return "hits: " + getHits() + ", misses: " + getMisses()
+				+ ", collisions: " + getCollisions();
+	}
+
+	/**
+	 * @param entry An entry from {@link #probe(long)}.
+	 * @return The score of the board.
+	 */
+	public static int score(long entry) {
+		return (short) entry;
+	}
+
+	/**
+	 * @param entry An entry from {@link #probe(long)}.
+	 * @return The depth to which the board was searched.
+	 */
+	public static int depth(long entry) {
+		return (int) (entry >>> 16) & 0xFF;
+	}
+
+	/**
+	 * @param entry An entry from {@link #probe(long)}.
+	 * @return {@link #EXACT}, {@link #UPPER_BOUND} or {@link #LOWER_BOUND}.
+	 */
+	public static int bound(long entry) {
+		return (int) (entry >>> 24) & 0x3;
+	}
+
+	/**
+	 * @param entry An entry from {@link #probe(long)}.
+	 * @return The best move, or {@link #NO_MOVE}.
+	 */
+	public static int move(long entry) {
+		return (short) (entry >>> 32);
+	}
+
+	/**
+	 * @param entry An entry from {@link #probe(long)}.
+	 * @return The number of pieces on the board, or <code>0</code>
+	 * if it was not stored.
+	 */
+	public static int pieces(long entry) {
+		return (int) (entry >>> 48) & 0xFF;
+	}
+
+	/**
+	 * @param entry An entry from {@link #probe(long)}.
+	 * @return The number of the search that stored it.
+	 * @see #newSearch()
+	 */
+	private static int age(long entry) {
+		return (int) (entry >>> 26) & 0x3F;
+	}
+
+}
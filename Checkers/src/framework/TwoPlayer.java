@@ -49,6 +49,13 @@ public abstract class TwoPlayer<B> extends Game<B> {
 	 */
 	int whoseTurn;
 
+	/**
+	 * The engine used to choose the computer's moves, or
+	 * <code>null</code> to build the whole game tree as
+	 * described in {@link Game#computerMove(int)}.
+	 */
+	private SearchEngine<B> searchEngine;
+
 	// This is how all 2-player games are played:
 	// +------.
 	// |      V
@@ -113,6 +120,37 @@ public abstract class TwoPlayer<B> extends Game<B> {
 		return e;
 	}
 
+	/**
+	 * Selects a move with the {@link #getSearchEngine() search engine},
+	 * if there is one.
+	 * @param turn The number of the computer player whose turn it is.
+	 */
+	@Override
+	protected void computerMove(int turn) {
+		if (searchEngine == null) {
+			super.computerMove(turn);
+		} else {
+			board = searchEngine.search(board);
+		}
+	}
+
+	/**
+	 * @return The engine used to choose the computer's moves, or
+	 * <code>null</code> if the whole game tree is built.
+	 */
+	public SearchEngine<B> getSearchEngine() {
+		return searchEngine;
+	}
+
+	/**
+	 * Selects the engine used to choose the computer's moves.
+	 * @param searchEngine The new engine, or <code>null</code> to
+	 * build the whole game tree as {@link Game#computerMove(int)} does.
+	 */
+	public void setSearchEngine(SearchEngine<B> searchEngine) {
+		this.searchEngine = searchEngine;
+	}
+
 	/**
 	 * Used to determine which players are human.
 	 * Initializes indices 1 and 2 of the
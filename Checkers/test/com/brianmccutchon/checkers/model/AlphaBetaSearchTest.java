@@ -0,0 +1,96 @@
+package com.brianmccutchon.checkers.model;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import framework.DSArrayList;
+
+public class AlphaBetaSearchTest {
+
+	byte o = Checkers.UNOCCUPIED_SQUARE;
+	byte b = Checkers.P1_PAWN;
+	byte B = Checkers.P1_KING;
+	byte r = Checkers.P2_PAWN;
+	byte R = Checkers.P2_KING;
+
+	BitBoard start = BitBoard.start();
+
+	/**
+	 * Scores a position by looking at every board, without pruning.
+	 * Jumps are played out past the depth limit.
+	 */
+	private int minimax(BitBoard bb, int depth, int ply) {
+		DSArrayList<BitBoard> children = bb.getChildren();
+
+		if (children.size() == 0)
+			return Checkers.LOSS + ply;
+		if (depth == 0 && !bb.jumpIsPossible())
+			return bb.evaluate();
+
+		int best = -AlphaBetaSearch.INFINITY;
+		for (BitBoard child : children)
+			best = Math.max(best,
+					-minimax(child, Math.max(depth - 1, 0), ply + 1));
+		return best;
+	}
+
+	@Test
+	public void testScoresMatchMinimax() {
+		AlphaBetaSearch search = new AlphaBetaSearch(5, false);
+		Random rand = new Random(42);
+
+		for (int game = 0; game < 10; game++) {
+			BitBoard bb = start;
+
+			for (int move = 0; move < 30; move++) {
+				assertEquals("Pruning should not change the score.",
+						minimax(bb, 4, 0), search.score(bb, 4));
+
+				DSArrayList<BitBoard> children = bb.getChildren();
+				if (children.size() == 0)
+					break;
+				bb = children.get(rand.nextInt(children.size()));
+			}
+		}
+	}
+
+	@Test
+	public void testTimeLimit() {
+		AlphaBetaSearch search = new AlphaBetaSearch(1, false);
+		search.setTimeLimit(200);
+
+		long startTime = System.currentTimeMillis();
+		search.bestChild(start);
+		long elapsed = System.currentTimeMillis() - startTime;
+
+		// Loose enough for a busy machine; the depth shows the clock worked.
+		assertTrue("The search should not go far over its time limit.",
+				elapsed < 5000);
+		assertTrue("With a time limit, the search should go deeper than " +
+				"the depth it was given.", search.getCompletedDepth() > 1);
+		assertTrue("The search should be stopped by the clock.",
+				search.getCompletedDepth() < AlphaBetaSearch.MAX_DEPTH);
+	}
+
+	@Test
+	public void testTakesDoubleJump() {
+		byte[][] board = new AlphaBetaSearch(4, false).search(new byte[][]{
+			{b, 0, 0, 0},
+			{   o , o , o , o },
+			{ o , r , o , o   },
+			{   o , o , o , o },
+			{ o , o , r , r   },
+			{   o , o , B , o },
+			{ o , o , o , o   },
+			{   o , o , o , o },
+			{ o , o , o , o   },
+		});
+
+		assertEquals("The king should take two pieces rather than one.", 1,
+				Integer.bitCount(BitBoard.fromArray(board).p2));
+	}
+
+}
@@ -0,0 +1,63 @@
+package com.brianmccutchon.checkers.model;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import framework.NodeArena;
+
+public class ArenaTreeSearchTest {
+
+	BitBoard[] positions = {
+		BitBoard.start(),
+		BitBoard.fromString("r:..../.B.r/..../R.../..../.b../..b./R..."),
+		BitBoard.fromString("b:rr../..../..../.r../..b./..../bb../...."),
+	};
+
+	@Test
+	public void testScoresMatchAlphaBeta() {
+		for (int depth = 1; depth <= 4; depth++) {
+			ArenaTreeSearch tree = new ArenaTreeSearch(depth, false, 1 << 20);
+			AlphaBetaSearch ab = new AlphaBetaSearch(depth, false);
+
+			for (BitBoard b : positions) {
+				assertEquals(b.toString(), ab.score(b, depth), tree.score(b));
+			}
+		}
+	}
+
+	@Test
+	public void testTreeSize() {
+		ArenaTreeSearch tree = new ArenaTreeSearch(5, false, 1 << 20);
+		tree.score(positions[0]);
+
+		// One node for every position within five moves.
+		assertEquals(1 + 7 + 49 + 302 + 1469 + 7361, tree.getNodeCount());
+		NodeArena arena = tree.getArena();
+		assertEquals(positions[0].key, arena.getLong(0, ArenaTreeSearch.KEY));
+		assertEquals(7, arena.getShort(0, ArenaTreeSearch.CHILD_COUNT));
+	}
+
+	@Test
+	public void testFullArena() {
+		// Too small for the whole tree, but there is still a move.
+		ArenaTreeSearch tree = new ArenaTreeSearch(6, false, 100);
+		BitBoard child = tree.bestChild(positions[0]);
+
+		assertTrue(positions[0].getChildren().contains(child));
+		assertTrue(tree.getNodeCount() <= 100);
+	}
+
+	@Test
+	public void testStopSignal() {
+		// Without the signal, the tree would fill the arena.
+		ArenaTreeSearch tree = new ArenaTreeSearch(8, false, 1 << 20);
+		BitBoard child = tree.bestChild(positions[0], new AtomicBoolean(true));
+
+		assertTrue(positions[0].getChildren().contains(child));
+		assertTrue(tree.getNodeCount() < 1 << 12);
+	}
+
+}
@@ -0,0 +1,237 @@
+package com.brianmccutchon.checkers.model;
+
+import static org.junit.Assert.*;
+
+import java.awt.Point;
+import java.util.Random;
+
+import org.junit.Test;
+
+import framework.DSArrayList;
+
+public class BitBoardTest {
+
+	byte o = Checkers.UNOCCUPIED_SQUARE;
+	byte b = Checkers.P1_PAWN;
+	byte B = Checkers.P1_KING;
+	byte r = Checkers.P2_PAWN;
+	byte R = Checkers.P2_KING;
+
+	byte[][] start = new byte[][]{
+		{b, 0, 0, 0},
+		{   r , r , r , r },
+		{ r , r , r , r   },
+		{   r , r , r , r },
+		{ o , o , o , o   },
+		{   o , o , o , o },
+		{ b , b , b , b   },
+		{   b , b , b , b },
+		{ b , b , b , b   },
+	};
+
+	/**
+	 * Counts the positions reachable in exactly <code>depth</code> moves.
+	 */
+	private long countLeaves(BitBoard bb, int depth) {
+		if (depth == 0)
+			return 1;
+
+		long count = 0;
+		for (BitBoard child : bb.getChildren())
+			count += countLeaves(child, depth - 1);
+		return count;
+	}
+
+	@Test
+	public void testConversion() {
+		byte[][] board = new byte[][]{
+			{r, 0, 0, 0},
+			{   o , o , R , o },
+			{ o , o , B , b   },
+			{   o , b , o , b },
+			{ r , o , o , o   },
+			{   b , o , o , o },
+			{ o , b , o , o   },
+			{   B , o , o , o },
+			{ R , o , o , o   },
+		};
+
+		assertArrayEquals("Converting to a BitBoard and back should " +
+				"not change the board.",
+				board, BitBoard.fromArray(board).toArray());
+	}
+
+	@Test
+	public void testLeafCounts() {
+		// Well-known counts for 8x8 checkers with forced jumps.
+		long[] expected = { 1, 7, 49, 302, 1469, 7361, 36768 };
+
+		for (int depth = 0; depth < expected.length; depth++) {
+			assertEquals("Wrong number of positions at depth " + depth,
+					expected[depth],
+					countLeaves(BitBoard.fromArray(start), depth));
+		}
+	}
+
+	@Test
+	public void testEvaluate() {
+		Checkers c = new Checkers(new Preferences(7, true, true, "Normal"), null);
+		Random rand = new Random(7);
+
+		for (int game = 0; game < 20; game++) {
+			BitBoard bb = BitBoard.fromArray(start);
+
+			while (bb.moveIsPossible()) {
+				byte[][] board = bb.toArray();
+				assertEquals("BitBoard should score boards like Checkers.",
+						c.evaluateBoard(board), bb.evaluate());
+
+				DSArrayList<BitBoard> children = bb.getChildren();
+				bb = children.get(rand.nextInt(children.size()));
+			}
+		}
+	}
+
+	@Test
+	public void testIncrementalHash() {
+		Random rand = new Random(3);
+
+		for (int game = 0; game < 50; game++) {
+			BitBoard bb = BitBoard.fromArray(start);
+
+			while (bb.moveIsPossible()) {
+				assertEquals("The hash should be updated correctly by moves.",
+						Zobrist.hash(bb), bb.key);
+				assertEquals("Both kinds of board should hash the same.",
+						Zobrist.hash(bb.toArray()), bb.key);
+
+				DSArrayList<BitBoard> children = bb.getChildren();
+				bb = children.get(rand.nextInt(children.size()));
+			}
+		}
+	}
+
+	@Test
+	public void testIncrementalEval() {
+		Random rand = new Random(11);
+
+		for (int game = 0; game < 50; game++) {
+			BitBoard bb = BitBoard.fromArray(start);
+
+			while (bb.moveIsPossible()) {
+				assertEquals("The score should be updated correctly by moves.",
+						BitBoard.evaluate(bb.p1, bb.p2, bb.kings), bb.eval);
+
+				DSArrayList<BitBoard> children = bb.getChildren();
+				bb = children.get(rand.nextInt(children.size()));
+			}
+		}
+	}
+
+	@Test
+	public void testUnmakeMove() {
+		Random rand = new Random(5);
+		long[] moves = new long[BitBoard.MAX_MOVES];
+
+		for (int game = 0; game < 50; game++) {
+			BitBoard bb = BitBoard.fromArray(start);
+			int count;
+
+			while ((count = bb.generateMoves(moves)) != 0) {
+				for (int i = 0; i < count; i++) {
+					BitBoard before = bb.copy();
+					int undo = bb.makeMove(moves[i]);
+					assertEquals(before.play(moves[i]), bb);
+					assertEquals("The hash should be updated correctly by moves.",
+							Zobrist.hash(bb), bb.key);
+
+					bb.unmakeMove(moves[i], undo);
+					assertEquals("Unmaking a move should restore the position.",
+							before, bb);
+					assertEquals(before.key, bb.key);
+					assertEquals(before.eval, bb.eval);
+				}
+
+				bb.makeMove(moves[rand.nextInt(count)]);
+			}
+		}
+	}
+
+	@Test
+	public void testMultipleJumps() {
+		DSArrayList<BitBoard> children = BitBoard.fromArray(new byte[][]{
+			{b, 0, 0, 0},
+			{   o , o , o , o },
+			{ o , o , o , o   },
+			{   o , o , o , o },
+			{ o , o , r , r   },
+			{   o , o , o , o },
+			{ o , o , r , r   },
+			{   o , o , B , o },
+			{ o , o , o , o   },
+		}).getChildren();
+
+		assertEquals("A king surrounded by four pieces can take them all " +
+				"in either direction.", 2, children.size());
+
+		for (BitBoard child : children) {
+			assertEquals("Every jumped piece should be removed.",
+					0, child.p2);
+			assertEquals("The king should end up where it started.",
+					Checkers.P1_KING, child.pieceAt(6 * 4 + 2));
+		}
+	}
+
+	@Test
+	public void testMoveEncoding() {
+		BitBoard bb = BitBoard.fromArray(new byte[][]{
+			{b, 0, 0, 0},
+			{   o , o , o , o },
+			{ o , o , o , o   },
+			{   o , r , o , o },
+			{ o , o , o , o   },
+			{   o , r , o , o },
+			{ o , o , b , o   },
+			{   o , o , o , o },
+			{ o , o , o , o   },
+		});
+		long[] moves = new long[BitBoard.MAX_MOVES];
+
+		assertEquals("Only the double jump should be possible.",
+				1, bb.generateMoves(moves));
+		assertEquals("A move from the GUI should encode like the generated one.",
+				moves[0], new Move(4, 5, new Point(2, 3), new Point(4, 1)).encode());
+		assertEquals(0, bb.play(moves[0]).p2);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testEncodeLightSquare() {
+		new Move(4, 5, new Point(4, 4)).encode();
+	}
+
+	@Test
+	public void testCoronation() {
+		DSArrayList<BitBoard> children = BitBoard.fromArray(new byte[][]{
+			{r, 0, 0, 0},
+			{   o , o , o , o },
+			{ o , o , o , o   },
+			{   o , o , o , o },
+			{ o , o , o , o   },
+			{   o , o , o , o },
+			{ o , o , o , o   },
+			{   r , o , o , o },
+			{ o , o , o , o   },
+		}).getChildren();
+
+		assertEquals(2, children.size());
+		for (BitBoard child : children) {
+			assertEquals("A pawn reaching the last row should be crowned.",
+					child.p2, child.kings);
+			assertEquals(Checkers.P1_PAWN, child.turn);
+		}
+
+		assertFalse("A player with no pieces cannot move.",
+				children.get(0).moveIsPossible());
+	}
+
+}
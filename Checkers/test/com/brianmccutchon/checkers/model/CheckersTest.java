@@ -159,7 +159,7 @@ public class CheckersTest {
 		
 		// Squares 1, 5, 28, and 32 on an 8x8 board do not count as edges
 		// because it is impossible to trap a king there with a single king.
-		// See Checkers.isAlongEdge().
+		// See BitBoard.EDGES.
 		assertEquals("Kings in the top-left and bottom-right are less valuable " +
 				"by one. (See comment accompanying this test.)",
 				1, c.evaluateBoard(new byte[][]{
@@ -176,7 +176,7 @@ public class CheckersTest {
 		
 		// Squares 1, 5, 28, and 32 on an 8x8 board do not count as edges
 		// because it is impossible to trap a king there with a single king.
-		// See Checkers.isAlongEdge().
+		// See BitBoard.EDGES.
 		assertEquals("Kings in the top-left and bottom-right are less valuable " +
 				"by one. (See comment accompanying this test.)",
 				1, c.evaluateBoard(new byte[][]{
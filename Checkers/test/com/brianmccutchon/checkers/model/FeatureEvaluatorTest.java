@@ -0,0 +1,63 @@
+package com.brianmccutchon.checkers.model;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.Test;
+
+import framework.DSArrayList;
+
+public class FeatureEvaluatorTest {
+
+	BitBoard start = BitBoard.start();
+
+	@Test
+	public void testScoresAreWeightedFeatures() {
+		Random rand = new Random(13);
+		int[] weights = new int[FeatureEvaluator.FEATURES];
+		for (int i = 0; i < weights.length; i++) {
+			weights[i] = rand.nextInt(81) - 40;
+		}
+
+		FeatureEvaluator custom = new FeatureEvaluator(weights);
+		int[] counts = new int[FeatureEvaluator.FEATURES];
+
+		for (int game = 0; game < 20; game++) {
+			BitBoard b = start;
+
+			while (b.moveIsPossible()) {
+				assertEquals("The default weights should score " +
+						"like BitBoard.", b.evaluate(),
+						FeatureEvaluator.DEFAULT.evaluate(b));
+
+				FeatureEvaluator.features(b, counts);
+				int sum = 0;
+				for (int i = 0; i < weights.length; i++) {
+					sum += weights[i] * counts[i];
+				}
+				sum /= FeatureEvaluator.SCALE;
+				assertEquals(b.turn == Checkers.P1_PAWN ? sum : -sum,
+						custom.evaluate(b));
+
+				DSArrayList<BitBoard> children = b.getChildren();
+				b = children.get(rand.nextInt(children.size()));
+			}
+		}
+	}
+
+	@Test
+	public void testSaveAndLoad() throws IOException {
+		int[] weights = FeatureEvaluator.defaultWeights();
+		weights[FeatureEvaluator.Feature.BACK_RANK.ordinal()] = 5;
+
+		File file = File.createTempFile("eval", ".properties");
+		file.deleteOnExit();
+		new FeatureEvaluator(weights).save(file);
+
+		assertArrayEquals(weights, FeatureEvaluator.load(file).getWeights());
+	}
+
+}
@@ -0,0 +1,58 @@
+package com.brianmccutchon.checkers.model;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import framework.DSArrayList;
+
+public class LazySmpSearchTest {
+
+	BitBoard start = BitBoard.start();
+
+	@Test
+	public void testChoosesLegalMoves() {
+		LazySmpSearch search = new LazySmpSearch(6, false, 4);
+		BitBoard bb = start;
+
+		for (int move = 0; move < 20 && bb.moveIsPossible(); move++) {
+			DSArrayList<BitBoard> children = bb.getChildren();
+			BitBoard next = search.bestChild(bb);
+			assertTrue("The chosen move should be legal.",
+					children.contains(next));
+			bb = next;
+		}
+
+		search.shutdown();
+	}
+
+	@Test
+	public void testTimeLimit() {
+		LazySmpSearch search = new LazySmpSearch(1, false, 4);
+		search.setTimeLimit(200);
+
+		long startTime = System.currentTimeMillis();
+		search.bestChild(start);
+		long elapsed = System.currentTimeMillis() - startTime;
+
+		// Loose enough for a busy machine.
+		assertTrue("The search should not go far over its time limit.",
+				elapsed < 5000);
+		search.shutdown();
+	}
+
+	@Test(timeout = 10000)
+	public void testStopSignal() {
+		// Without a time limit, this would take far too long to finish, and
+		// the main search waits for the helpers, so it only returns if they
+		// stop when it does.
+		LazySmpSearch search = new LazySmpSearch(30, false, 4);
+		BitBoard child = search.bestChild(start, new AtomicBoolean(true));
+
+		assertTrue(start.getChildren().contains(child));
+		search.shutdown();
+	}
+
+}
@@ -0,0 +1,93 @@
+package com.brianmccutchon.checkers.model;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import framework.DSArrayList;
+import framework.TranspositionTable;
+
+public class MoveOrdererTest {
+
+	BitBoard start = BitBoard.start();
+
+	@Test
+	public void testTableMoveThenKillers() {
+		MoveOrderer orderer = new MoveOrderer(4);
+		long[] moves = new long[BitBoard.MAX_MOVES];
+		int count = start.generateMoves(moves);
+
+		orderer.cutoff(start, moves[3], 5, 1);
+		int[] order = orderer.order(start, moves, count, 5, 1);
+		assertEquals(5, order[0]);
+		assertEquals(3, order[1]);
+
+		// A killer at its own ply comes before a move with a better history.
+		orderer.cutoff(start, moves[4], 1, 2);
+		assertEquals(4, orderer.order(start, moves, count,
+				TranspositionTable.NO_MOVE, 2)[0]);
+
+		// A new search forgets the killers but not the history.
+		orderer.newSearch();
+		assertEquals(3, orderer.order(start, moves, count,
+				TranspositionTable.NO_MOVE, 2)[0]);
+	}
+
+	@Test
+	public void testBiggerJumpsFirst() {
+		MoveOrderer orderer = new MoveOrderer(1);
+		long[] moves = new long[BitBoard.MAX_MOVES];
+		Random rand = new Random(7);
+		int checked = 0;
+
+		for (int game = 0; game < 50; game++) {
+			BitBoard b = start;
+			for (int ply = 0; ply < 60 && b.moveIsPossible(); ply++) {
+				int count = b.generateMoves(moves);
+				int[] order = orderer.order(b, moves, count,
+						TranspositionTable.NO_MOVE, 0);
+
+				for (int i = 1; i < count; i++) {
+					if (BitBoard.moveCaptured(moves[order[i]]) != 0) {
+						assertTrue(MoveOrderer.gain(b, moves[order[i - 1]])
+								>= MoveOrderer.gain(b, moves[order[i]]));
+						checked++;
+					}
+				}
+
+				DSArrayList<BitBoard> children = b.getChildren();
+				b = children.get(rand.nextInt(children.size()));
+			}
+		}
+
+		assertTrue(checked > 0);
+	}
+
+	@Test
+	public void testOrderingPrunesMore() {
+		Random rand = new Random(3);
+		long orderedNodes = 0, unorderedNodes = 0;
+
+		for (int game = 0; game < 10; game++) {
+			BitBoard b = start;
+			for (int ply = 0; ply < 10 && b.moveIsPossible(); ply++) {
+				DSArrayList<BitBoard> children = b.getChildren();
+				b = children.get(rand.nextInt(children.size()));
+			}
+
+			AlphaBetaSearch ordered = new AlphaBetaSearch(8, false);
+			AlphaBetaSearch unordered = new AlphaBetaSearch(8, false);
+			unordered.setMoveOrderer(null);
+
+			assertEquals("Ordering should not change the score.",
+					unordered.score(b, 8), ordered.score(b, 8));
+			orderedNodes += ordered.getNodeCount();
+			unorderedNodes += unordered.getNodeCount();
+		}
+
+		assertTrue(orderedNodes < unorderedNodes);
+	}
+
+}
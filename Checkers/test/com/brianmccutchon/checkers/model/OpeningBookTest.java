@@ -0,0 +1,43 @@
+package com.brianmccutchon.checkers.model;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Test;
+
+public class OpeningBookTest {
+
+	BitBoard start = BitBoard.start();
+
+	@Test
+	public void testBookMoves() throws IOException {
+		OpeningBook book = OpeningBookBuilder.build(start, 3, 4);
+
+		File file = File.createTempFile("book", ".ckbk");
+		file.deleteOnExit();
+		book.save(file);
+		OpeningBook loaded = OpeningBook.load(file);
+		assertEquals(book.size(), loaded.size());
+		assertEquals(4, loaded.depth());
+
+		// Every position in the first three moves is in the book,
+		// and every move from it is legal.
+		for (BitBoard child : start.getChildren()) {
+			for (BitBoard grandchild : child.getChildren()) {
+				long move = loaded.probe(grandchild);
+				assertNotEquals(OpeningBook.NO_MOVE, move);
+				assertTrue(grandchild.getChildren().contains(
+						grandchild.play(move)));
+			}
+		}
+
+		BitBoard later = start;
+		for (int ply = 0; ply < 4; ply++) {
+			later = later.getChildren().get(0);
+		}
+		assertEquals(OpeningBook.NO_MOVE, loaded.probe(later));
+	}
+
+}
@@ -0,0 +1,52 @@
+package com.brianmccutchon.checkers.model;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class PerftTest {
+
+	BitBoard start = BitBoard.start();
+
+	@Test
+	public void testStartPosition() {
+		// Well-known counts for 8x8 checkers with forced jumps.
+		long[] expected = { 1, 7, 49, 302, 1469, 7361, 36768, 179740 };
+
+		for (int depth = 0; depth < expected.length; depth++) {
+			assertEquals("Wrong number of positions at depth " + depth,
+					expected[depth], Perft.perft(start, depth));
+		}
+	}
+
+	@Test
+	public void testDivide() throws InterruptedException {
+		Perft.Divide divide = Perft.divide(start, 7, 4);
+
+		assertEquals(7, divide.moves.length);
+		assertEquals("The counts for each move should add up to the total.",
+				179740, divide.total());
+
+		for (int i = 0; i < divide.moves.length; i++) {
+			assertEquals(Perft.perft(start.play(divide.moves[i]), 6),
+					divide.counts[i]);
+		}
+	}
+
+	@Test
+	public void testPositionText() {
+		assertEquals(
+				BitBoard.fromString("b:rrrr/rrrr/rrrr/..../..../bbbb/bbbb/bbbb"),
+				start);
+
+		String text = "r:..../.B.r/..../R.../..../.b../..b./R...";
+		assertEquals("Writing a position and reading it back should not "
+				+ "change it.", text, BitBoard.fromString(text).toString());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBadPositionText() {
+		BitBoard.fromString("b:rrrr/rrrr/rrrr/..../..../bbbb/bbbb");
+	}
+
+}
@@ -0,0 +1,54 @@
+package com.brianmccutchon.checkers.model;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class PondererTest {
+
+	AlphaBetaSearch engine = new AlphaBetaSearch(4, false);
+
+	@Test
+	public void testPonderHit() {
+		// Black's only move is a jump, so it is always the guess.
+		BitBoard b = BitBoard.fromString("b:rr../..../..../.r../.b../..../bb../....");
+		BitBoard reply = b.getChildren().get(0);
+		assertEquals(1, b.getChildren().size());
+
+		Ponderer ponderer = new Ponderer(engine);
+		ponderer.start(b.toArray());
+		byte[][] answer = ponderer.finish(reply.toArray());
+
+		assertNotNull("The guess was right, so there should be an answer.",
+				answer);
+		assertTrue(reply.getChildren().contains(BitBoard.fromArray(answer)));
+	}
+
+	@Test
+	public void testPonderMiss() {
+		BitBoard b = BitBoard.fromString("b:rr../..../..../.r../..b./..../bb../....");
+
+		Ponderer ponderer = new Ponderer(engine);
+		ponderer.start(b.toArray());
+		assertNull(ponderer.finish(null));
+
+		// The engine is free again.
+		assertTrue(b.getChildren().contains(engine.bestChild(b)));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testSearchFails() {
+		BitBoard b = BitBoard.fromString("b:rr../..../..../.r../.b../..../bb../....");
+
+		Ponderer ponderer = new Ponderer(board -> {
+			throw new UnsupportedOperationException();
+		});
+		try {
+			ponderer.start(b.toArray());
+			ponderer.finish(b.getChildren().get(0).toArray());
+		} finally {
+			ponderer.shutdown();
+		}
+	}
+
+}
@@ -0,0 +1,106 @@
+package com.brianmccutchon.checkers.model;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class TablebaseTest {
+
+	static Tablebase tb;
+
+	@BeforeClass
+	public static void generate() {
+		tb = TablebaseGenerator.generate(3);
+	}
+
+	@Test
+	public void testIndex() {
+		Random rand = new Random(1);
+		int sig = Tablebase.signature(1, 1, 0, 1);
+
+		for (int i = 0; i < 1000; i++) {
+			int index = rand.nextInt(Tablebase.size(sig));
+			int[] pieces = Tablebase.unindex(sig, index);
+			if (pieces != null) {
+				assertEquals(sig, Tablebase.signature(pieces[0], pieces[1],
+						pieces[2]));
+				assertEquals(index, Tablebase.index(pieces[0], pieces[1],
+						pieces[2]));
+			}
+		}
+	}
+
+	@Test
+	public void testSaveAndLoad() throws IOException {
+		File file = File.createTempFile("tablebase", ".cktb");
+		file.deleteOnExit();
+
+		tb.save(file);
+		Tablebase loaded = Tablebase.load(file);
+
+		assertEquals(3, loaded.getMaxPieces());
+		for (int sig = 0; sig < tb.tables.length; sig++) {
+			assertEquals(tb.tables[sig], loaded.tables[sig]);
+		}
+	}
+
+	@Test
+	public void testAgreesWithSearch() {
+		// A search deep enough to see the end of a short win or
+		// loss should give it the same score as the tablebase.
+		int sig = Tablebase.signature(0, 2, 0, 1);
+		int checked = 0;
+
+		for (int i = 0; i < tb.tables[sig].capacity() && checked < 20; i += 97) {
+			int value = tb.tables[sig].get(i);
+			int distance = (value > 0) ? value : -value - 1;
+			if (value == 0 || distance > 6) {
+				continue;
+			}
+
+			int[] pieces = Tablebase.unindex(sig, i);
+			BitBoard b = new BitBoard(pieces[0], pieces[1], pieces[2],
+					Checkers.P1_PAWN);
+			AlphaBetaSearch search = new AlphaBetaSearch(distance, false);
+			assertEquals(b.toString(), Tablebase.score(value, 0),
+					search.score(b, distance + 1));
+
+			// Looking up the children should give the same score at once.
+			search.setTablebase(tb);
+			assertEquals(b.toString(), Tablebase.score(value, 0),
+					search.score(b, 1));
+
+			// The same position, turned around.
+			BitBoard turned = new BitBoard(Integer.reverse(b.p2),
+					Integer.reverse(b.p1), Integer.reverse(b.kings),
+					Checkers.P2_PAWN);
+			assertEquals(value, tb.probe(turned));
+			checked++;
+		}
+
+		assertTrue(checked > 0);
+	}
+
+	@Test
+	public void testLongDistanceAtDeepPly() {
+		int deepest = AlphaBetaSearch.MAX_PLY + Quiescence.MAX_PLY;
+		int distance = TablebaseGenerator.MAX_DISTANCE;
+
+		for (int value : new int[] { distance, -distance - 1 }) {
+			int score = Tablebase.score(value, deepest);
+			assertTrue("Still a win or a loss: " + score,
+					Math.abs(score) >= AlphaBetaSearch.MIN_WIN);
+
+			// Found deep, then looked up in the table near the root.
+			int stored = AlphaBetaSearch.toTable(score, deepest);
+			assertEquals(Tablebase.score(value, 2),
+					AlphaBetaSearch.fromTable(stored, 2));
+		}
+	}
+
+}
@@ -0,0 +1,39 @@
+package com.brianmccutchon.checkers.model;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Test;
+
+public class TexelTunerTest {
+
+	@Test
+	public void testTuningRestoresPawnWeight() throws IOException {
+		GameRecords records = SelfPlay.play(20, 2);
+		assertTrue(records.size() > 0);
+
+		File file = File.createTempFile("games", ".ckgr");
+		file.deleteOnExit();
+		records.save(file);
+		GameRecords loaded = GameRecords.load(file);
+		assertEquals(records.size(), loaded.size());
+		assertEquals(records.position(7), loaded.position(7));
+		assertEquals(records.result(7), loaded.result(7));
+
+		// Start from weights that ignore pawns, which are clearly wrong.
+		TexelTuner tuner = new TexelTuner(loaded);
+		int pawn = FeatureEvaluator.Feature.PAWN.ordinal();
+		int[] weights = FeatureEvaluator.defaultWeights();
+		weights[pawn] = 0;
+
+		double before = tuner.error(weights, tuner.fitK(weights));
+		double after = tuner.tune(weights, null);
+
+		assertTrue("Tuning should improve the fit.", after < before);
+		assertTrue("Tuning should move the pawn weight back up.",
+				weights[pawn] > 0);
+	}
+
+}
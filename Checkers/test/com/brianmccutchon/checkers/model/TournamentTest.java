@@ -0,0 +1,123 @@
+package com.brianmccutchon.checkers.model;
+
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+
+import framework.SearchEngine;
+
+public class TournamentTest {
+
+	@Test
+	public void testOpenings() {
+		assertEquals(1, Tournament.openings(BitBoard.start(), 0).size());
+		assertEquals(7, Tournament.openings(BitBoard.start(), 1).size());
+		assertEquals(49, Tournament.openings(BitBoard.start(), 2).size());
+	}
+
+	@Test
+	public void testPlay() throws InterruptedException {
+		AtomicInteger made = new AtomicInteger(), shutDown = new AtomicInteger();
+		Supplier<SearchEngine<byte[][]>> engine = () -> {
+			made.incrementAndGet();
+			AlphaBetaSearch search = new AlphaBetaSearch(2, false);
+			return new SearchEngine<byte[][]>() {
+				@Override
+				public byte[][] search(byte[][] board) {
+					return search.search(board);
+				}
+
+				@Override
+				public void shutdown() {
+					shutDown.incrementAndGet();
+				}
+			};
+		};
+
+		List<BitBoard> openings = Tournament.openings(BitBoard.start(), 2);
+		Tournament.Result result = new Tournament(engine, engine, false)
+				.play(openings, 20, 2, null);
+
+		assertEquals(20, result.games());
+		assertTrue(made.get() > 0);
+		assertEquals("Every engine should be shut down.",
+				made.get(), shutDown.get());
+	}
+
+	@Test
+	public void testNoMoves() {
+		// Red's last pawn is on black's back row, where it cannot move.
+		BitBoard stuck = BitBoard.fromString(
+				"r:..../..../..../..../..../..../..../...r");
+		SearchEngine<byte[][]> a = new AlphaBetaSearch(2, false);
+		SearchEngine<byte[][]> b = new AlphaBetaSearch(2, false);
+
+		assertEquals(-1, new Tournament(null, null, false).playGame(stuck, a, b));
+		assertEquals(-1, new Tournament(null, null, false).playGame(stuck, b, a));
+		assertEquals(1, new Tournament(null, null, true).playGame(stuck, a, b));
+		assertEquals(1, new Tournament(null, null, true).playGame(stuck, b, a));
+	}
+
+	@Test
+	public void testColorsAlternate() throws InterruptedException {
+		// Black's only move jumps red's last piece, so whoever
+		// moves first wins, or loses in suicide checkers.
+		BitBoard jump = BitBoard.fromString(
+				"b:..../..../..../.r../.b../..../..../....");
+		Supplier<SearchEngine<byte[][]>> engine =
+				() -> new AlphaBetaSearch(2, false);
+
+		assertEquals(1, new Tournament(null, null, false)
+				.playGame(jump, engine.get(), engine.get()));
+		assertEquals(-1, new Tournament(null, null, true)
+				.playGame(jump, engine.get(), engine.get()));
+
+		// Engine A moves first in one game and second in the other.
+		Tournament.Result result = new Tournament(engine, engine, false)
+				.play(Collections.singletonList(jump), 2, 1, null);
+		assertEquals(1, result.wins);
+		assertEquals(0, result.draws);
+		assertEquals(1, result.losses);
+	}
+
+	@Test
+	public void testQuietDraw() {
+		// Neither lone king can catch the other.
+		BitBoard kings = BitBoard.fromString(
+				"b:B.../..../..../..../..../..../..../...R");
+		AtomicInteger moves = new AtomicInteger();
+		AlphaBetaSearch search = new AlphaBetaSearch(4, false);
+		SearchEngine<byte[][]> engine = board -> {
+			moves.incrementAndGet();
+			return search.search(board);
+		};
+
+		assertEquals(0, new Tournament(null, null, false)
+				.playGame(kings, engine, engine));
+		assertEquals(Tournament.QUIET_PLIES, moves.get());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testTreeEngine() {
+		Tournament.engine(new Preferences(2, false, false, "Normal", "Tree"),
+				FeatureEvaluator.DEFAULT);
+	}
+
+	@Test
+	public void testElo() {
+		Tournament.Result even = new Tournament.Result(10, 0, 10);
+		assertEquals(0, even.elo(), 1e-9);
+		assertTrue(even.eloError() > 0);
+
+		Tournament.Result better = new Tournament.Result(64, 0, 36);
+		assertEquals(-400 * Math.log10(1 / 0.64 - 1), better.elo(), 1e-9);
+		assertTrue(new Tournament.Result(640, 0, 360).eloError()
+				< better.eloError());
+	}
+
+}
@@ -0,0 +1,70 @@
+package com.brianmccutchon.checkers.model;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import framework.DSArrayList;
+
+public class YbwcSearchTest {
+
+	BitBoard start = BitBoard.start();
+
+	@Test
+	public void testScoresMatchAlphaBeta() {
+		YbwcSearch search = new YbwcSearch(6, false, 4);
+		Random rand = new Random(11);
+
+		for (int game = 0; game < 5; game++) {
+			BitBoard bb = start;
+
+			for (int move = 0; move < 30 && bb.moveIsPossible(); move++) {
+				assertEquals("Splitting the search should not change the score.",
+						new AlphaBetaSearch(5, false).score(bb, 5),
+						search.score(bb, 5));
+
+				DSArrayList<BitBoard> children = bb.getChildren();
+				bb = children.get(rand.nextInt(children.size()));
+			}
+		}
+
+		search.shutdown();
+	}
+
+	@Test
+	public void testChoosesLegalMoves() {
+		YbwcSearch search = new YbwcSearch(7, false, 4);
+		BitBoard bb = start;
+
+		for (int move = 0; move < 20 && bb.moveIsPossible(); move++) {
+			DSArrayList<BitBoard> children = bb.getChildren();
+			BitBoard next = search.bestChild(bb);
+			assertTrue("The chosen move should be legal.",
+					children.contains(next));
+			bb = next;
+		}
+
+		search.shutdown();
+	}
+
+	@Test
+	public void testTimeLimit() {
+		YbwcSearch search = new YbwcSearch(1, false, 4);
+		search.setTimeLimit(200);
+
+		long startTime = System.currentTimeMillis();
+		search.bestChild(start);
+		long elapsed = System.currentTimeMillis() - startTime;
+
+		// Loose enough for a busy machine; the depth shows the clock worked.
+		assertTrue("The search should not go far over its time limit.",
+				elapsed < 5000);
+		assertTrue(search.getCompletedDepth() > 1);
+		assertTrue("The search should be stopped by the clock.",
+				search.getCompletedDepth() < AlphaBetaSearch.MAX_DEPTH);
+		search.shutdown();
+	}
+
+}
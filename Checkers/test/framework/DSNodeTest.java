@@ -0,0 +1,46 @@
+package framework;
+
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class DSNodeTest {
+
+	@Test
+	public void testChildOrder() {
+		DSNode<String> root = new DSNode<>("root", null);
+		root.addChild("a");
+		root.addChild("b").addChild("c");
+		root.addChild("d");
+
+		assertEquals(3, root.countChildren());
+		assertEquals("b", root.getChild(1).returnThing());
+		assertEquals("Children should be visited in the order they were added.",
+				Arrays.asList("root", "a", "b", "c", "d"),
+				Arrays.asList(root.linearize().stream().toArray()));
+		assertEquals(BigInteger.valueOf(3), root.countLeaves());
+	}
+
+	@Test
+	public void testSetChildren() {
+		DSNode<Integer> root = new DSNode<>(0, null);
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		DSNode<Integer>[] children = new DSNode[] {
+				new DSNode<>(1, null), new DSNode<>(2, null) };
+		root.setChildren(children);
+
+		assertSame(root, root.getChild(0).returnParent());
+		assertEquals(Integer.valueOf(2), root.returnChildren().get(1).returnThing());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testChildrenCannotBeChanged() {
+		DSNode<Integer> root = new DSNode<>(0, null);
+		root.addChild(1);
+		root.returnChildren().set(0, new DSNode<>(2, null));
+	}
+
+}
@@ -0,0 +1,92 @@
+package framework;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import org.junit.Test;
+
+public class PrimitiveArrayListTest {
+
+	@Test
+	public void testGrowAndClear() {
+		IntArrayList list = new IntArrayList(2);
+		for (int i = 0; i < 100; i++) {
+			list.add(i);
+		}
+
+		assertEquals(100, list.size());
+		assertEquals(4950, list.stream().sum());
+		assertEquals(99, list.pop());
+
+		list.clear();
+		assertTrue(list.isEmpty());
+		list.add(7);
+		assertEquals(7, list.get(0));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testGetPastEnd() {
+		LongArrayList list = new LongArrayList();
+		list.add(1L);
+		list.clear();
+		list.get(0);
+	}
+
+	@Test
+	public void testIterator() {
+		LongArrayList list = new LongArrayList();
+		list.add(Long.MAX_VALUE);
+		list.add(-1L);
+
+		PrimitiveIterator.OfLong it = list.iterator();
+		assertEquals(Long.MAX_VALUE, it.nextLong());
+		assertEquals(-1L, it.nextLong());
+		assertFalse(it.hasNext());
+	}
+
+	@Test
+	public void testForEach() {
+		IntArrayList list = new IntArrayList();
+		list.add(3);
+		list.add(4);
+		list.add(5);
+
+		StringBuilder seen = new StringBuilder();
+		list.forEach(i -> seen.append(i));
+		assertEquals("345", seen.toString());
+	}
+
+	@Test
+	public void testShuffleKeepsItems() {
+		LongArrayList longs = new LongArrayList();
+		DSArrayList<Integer> objects = new DSArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			longs.add(i);
+			objects.add(i);
+		}
+
+		longs.shuffle(new Random(1));
+		objects.shuffle(new Random(1));
+
+		long[] range = LongStream.range(0, 50).toArray();
+		assertFalse("The items should be in a new order",
+				Arrays.equals(range, longs.toArray()));
+
+		long[] sorted = longs.toArray();
+		Arrays.sort(sorted);
+		assertArrayEquals(range, sorted);
+
+		int[] shuffled = objects.stream().mapToInt(i -> i).toArray();
+		assertFalse("The objects should be in a new order",
+				Arrays.equals(IntStream.range(0, 50).toArray(), shuffled));
+
+		Arrays.sort(shuffled);
+		assertArrayEquals(IntStream.range(0, 50).toArray(), shuffled);
+	}
+
+}
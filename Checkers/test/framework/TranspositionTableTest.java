@@ -0,0 +1,116 @@
+package framework;
+
+import static org.junit.Assert.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class TranspositionTableTest {
+
+	/** The score that the tests store for a hash. **/
+	private static int scoreFor(long key) {
+		return (short) (key * 31);
+	}
+
+	@Test
+	public void testStoreAndProbe() {
+		TranspositionTable table = new TranspositionTable(1024);
+
+		table.store(12345, 7, TranspositionTable.LOWER_BOUND, -250, 3);
+		long entry = table.probe(12345);
+
+		assertNotEquals("A stored board should be found.", 0, entry);
+		assertEquals(7, TranspositionTable.depth(entry));
+		assertEquals(TranspositionTable.LOWER_BOUND,
+				TranspositionTable.bound(entry));
+		assertEquals(-250, TranspositionTable.score(entry));
+		assertEquals(3, TranspositionTable.move(entry));
+
+		assertEquals("A board that was never stored should not be found.",
+				0, table.probe(54321));
+	}
+
+	@Test
+	public void testDeeperEntryIsKept() {
+		TranspositionTable table = new TranspositionTable(2);
+
+		table.store(1, 9, TranspositionTable.EXACT, 10, 0);
+		table.store(2, 1, TranspositionTable.EXACT, 20, 0);
+		table.store(3, 1, TranspositionTable.EXACT, 30, 0);
+
+		assertNotEquals("The deepest entry should not be replaced.",
+				0, table.probe(1));
+		assertEquals("The shallow slot should hold the latest entry.",
+				30, TranspositionTable.score(table.probe(3)));
+	}
+
+	@Test
+	public void testOldEntryIsReplaced() {
+		TranspositionTable table = new TranspositionTable(2);
+
+		table.store(1, 9, TranspositionTable.EXACT, 10, 0);
+		table.newSearch();
+		table.store(2, 1, TranspositionTable.EXACT, 20, 0);
+
+		assertEquals("An entry from an earlier search should be replaced, "
+				+ "however deep it is.", 0, table.probe(1));
+		assertEquals(20, TranspositionTable.score(table.probe(2)));
+	}
+
+	@Test
+	public void testEvict() {
+		TranspositionTable table = new TranspositionTable(1024);
+
+		table.store(1, 5, TranspositionTable.EXACT, 10, 0, 24);
+		table.store(2, 5, TranspositionTable.EXACT, 20, 0, 23);
+		table.store(3, 5, TranspositionTable.EXACT, 30, 0);
+		table.evict(23);
+
+		assertEquals("A board with more pieces cannot be reached again.",
+				0, table.probe(1));
+		assertEquals(23, TranspositionTable.pieces(table.probe(2)));
+		assertNotEquals(0, table.probe(3));
+	}
+
+	@Test
+	public void testSizeFor() {
+		assertEquals(1 << 22, TranspositionTable.sizeFor(64L << 20));
+		assertEquals(1 << 22, TranspositionTable.sizeFor(100L << 20));
+	}
+
+	@Test
+	public void testConcurrentUse() throws InterruptedException {
+		// A small table, so that threads often write the same slots.
+		TranspositionTable table = new TranspositionTable(64);
+		AtomicInteger wrongAnswers = new AtomicInteger();
+		Thread[] threads = new Thread[8];
+
+		for (int t = 0; t < threads.length; t++) {
+			SplittableRandom rand = new SplittableRandom(t);
+			threads[t] = new Thread(() -> {
+				for (int i = 0; i < 200_000; i++) {
+					long key = rand.nextLong(1, 1000);
+					long entry = table.probe(key);
+					if (entry != 0 &&
+							TranspositionTable.score(entry) != scoreFor(key)) {
+						wrongAnswers.incrementAndGet();
+					}
+					table.store(key, rand.nextInt(10),
+							TranspositionTable.EXACT, scoreFor(key), 0);
+				}
+			});
+			threads[t].start();
+		}
+
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertEquals("Entries of other boards should never be returned.",
+				0, wrongAnswers.get());
+		assertTrue(table.getHits() > 0);
+	}
+
+}